@@ -0,0 +1,35 @@
+package com.example.distributionview;
+
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class DistributionViewTest {
+
+    @Test
+    @UiThreadTest
+    public void setScaleBeyondCountKeepsEarlierScales() {
+        DistributionView view = new DistributionView(InstrumentationRegistry.getInstrumentation().getTargetContext());
+        view.setScales(new float[]{0.2f, 0.4f, 0.6f});
+        view.setAngleCount(5);
+        view.setScale(4, 0.8f);
+        assertEquals(0.2f, view.getScale(0), 0f);
+        assertEquals(0.4f, view.getScale(1), 0f);
+        assertEquals(0.6f, view.getScale(2), 0f);
+        assertEquals(0f, view.getScale(3), 0f);
+        assertEquals(0.8f, view.getScale(4), 0f);
+
+        view.setAngleCount(7);
+        view.setScales(new int[]{1, 6}, new float[]{0.5f, 1f});
+        assertEquals(0.2f, view.getScale(0), 0f);
+        assertEquals(0.5f, view.getScale(1), 0f);
+        assertEquals(0.8f, view.getScale(4), 0f);
+        assertEquals(1f, view.getScale(6), 0f);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.distributionview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按尺寸复用 ARGB_8888 位图，批量导出同尺寸的图片时避免反复申请大块内存
+ * 池中位图总字节数不超过 maxBytes，超出的位图直接回收
+ */
+final class BitmapPool {
+    //空闲位图，键为宽高
+    private final Map<Long, ArrayDeque<Bitmap>> free = new HashMap<>();
+    private final long maxBytes;
+    //池中位图的总字节数
+    private long pooledBytes = 0;
+
+    BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 取得一张已清空的位图，池中没有时新建
+     */
+    Bitmap obtain(int width, int height) {
+        Bitmap bitmap = null;
+        synchronized (this) {
+            ArrayDeque<Bitmap> bitmaps = free.get(key(width, height));
+            if (bitmaps != null && !bitmaps.isEmpty()) {
+                bitmap = bitmaps.pop();
+                pooledBytes -= bitmap.getAllocationByteCount();
+            }
+        }
+        if (bitmap == null) {
+            return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * 归还位图，归还后调用方不得再使用
+     */
+    void recycle(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (!bitmap.isMutable() || bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
+            bitmap.recycle();
+            return;
+        }
+        int bytes = bitmap.getAllocationByteCount();
+        synchronized (this) {
+            if (pooledBytes + bytes <= maxBytes) {
+                Long key = key(bitmap.getWidth(), bitmap.getHeight());
+                ArrayDeque<Bitmap> bitmaps = free.get(key);
+                if (bitmaps == null) {
+                    bitmaps = new ArrayDeque<>();
+                    free.put(key, bitmaps);
+                }
+                bitmaps.push(bitmap);
+                pooledBytes += bytes;
+                return;
+            }
+        }
+        bitmap.recycle();
+    }
+
+    /**
+     * 回收池中所有位图
+     */
+    synchronized void clear() {
+        for (ArrayDeque<Bitmap> bitmaps : free.values()) {
+            for (Bitmap bitmap : bitmaps) {
+                bitmap.recycle();
+            }
+        }
+        free.clear();
+        pooledBytes = 0;
+    }
+
+    private static Long key(int width, int height) {
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.distributionview;
+
+import android.graphics.Path;
+
+import com.example.distributionview.core.ChartGeometry;
+import com.example.distributionview.core.PolygonGeometry;
+
+/**
+ * 一组绘制参数下的静态图形：中心点、半径、各层背景、边框、连接线和文本锚点
+ * 坐标由 core 模块的 {@link ChartGeometry} 计算，这里只生成路径
+ * 构建完成后不再修改，可以在多个控件之间共享，见 {@link DistributionLayoutCache}
+ */
+final class ChartLayout {
+    //边数超过此值时使用高密度模式
+    static final int DENSE_ANGLE_COUNT = 32;
+    //高密度模式下相邻连接线在最外层的最小间距（px）
+    private static final float MIN_SPOKE_SPACING = 12f;
+    /**
+     * 静态图形的缓存键，包含影响图形的全部参数
+     */
+    static final class Key {
+        final int angleCount;
+        final int floorCount;
+        final float left;
+        final float top;
+        final float width;
+        final float height;
+        final float textSize;
+        final float textPadding;
+        //最宽的标题宽度，决定文本预留空间
+        final float textWidth;
+
+        Key(int angleCount, int floorCount, float left, float top, float width, float height,
+            float textSize, float textPadding, float textWidth) {
+            this.angleCount = angleCount;
+            this.floorCount = floorCount;
+            this.left = left;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+            this.textSize = textSize;
+            this.textPadding = textPadding;
+            this.textWidth = textWidth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return angleCount == key.angleCount
+                    && floorCount == key.floorCount
+                    && Float.compare(left, key.left) == 0
+                    && Float.compare(top, key.top) == 0
+                    && Float.compare(width, key.width) == 0
+                    && Float.compare(height, key.height) == 0
+                    && Float.compare(textSize, key.textSize) == 0
+                    && Float.compare(textPadding, key.textPadding) == 0
+                    && Float.compare(textWidth, key.textWidth) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = angleCount;
+            result = 31 * result + floorCount;
+            result = 31 * result + Float.floatToIntBits(left);
+            result = 31 * result + Float.floatToIntBits(top);
+            result = 31 * result + Float.floatToIntBits(width);
+            result = 31 * result + Float.floatToIntBits(height);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textPadding);
+            result = 31 * result + Float.floatToIntBits(textWidth);
+            return result;
+        }
+    }
+
+    final Key key;
+    //图形坐标（中心点、各层顶点、文本锚点）
+    final ChartGeometry shape;
+    //当前边数的顶点表
+    final PolygonGeometry geometry;
+    //图形中心点与中心点到各角的距离
+    final float centerX;
+    final float centerY;
+    final float radius;
+    //背景的两组环形色带（奇偶填充），每个像素只填充一次，与层数无关
+    //bandPath 为最外层所在的一组，bandPath2 为相邻的另一组
+    final Path bandPath = new Path();
+    final Path bandPath2 = new Path();
+    //各层边框路径，高密度模式下不使用
+    final Path borderPath = new Path();
+    //连接线路径，高密度模式下不使用
+    final Path connectPath = new Path();
+    //高密度模式：边框和连接线合并为 drawLines，标题、连接线和圆点按像素间距抽稀，覆盖区域按像素精度简化
+    final boolean dense;
+    //多边形与外接圆的最大偏差不足半个像素，背景直接画圆
+    final boolean round;
+    //每隔几个属性绘制一条连接线（和覆盖区域的圆点、连接线）、一个标题
+    final int spokeStep;
+    final int labelStep;
+    //高密度模式下所有层的边框线段与抽稀后的连接线段，每条线段4个值
+    final float[] ringLines;
+    final float[] spokeLines;
+    //各文本锚点，纵坐标已包含基线偏移
+    final float[] anchorX;
+    final float[] anchorY;
+    //各文本水平对齐系数：0左对齐，0.5居中，1右对齐
+    final float[] alignX;
+
+    private ChartLayout(Key key, ChartGeometry shape) {
+        this.key = key;
+        this.shape = shape;
+        this.geometry = shape.geometry;
+        this.centerX = shape.centerX;
+        this.centerY = shape.centerY;
+        this.radius = shape.radius;
+        this.anchorX = shape.anchorX;
+        this.anchorY = shape.anchorY;
+        this.alignX = shape.alignX;
+        int angleCount = key.angleCount;
+
+        dense = angleCount > DENSE_ANGLE_COUNT;
+        round = dense && radius * (1 - Math.cos(Math.PI / angleCount)) < 0.5f;
+        buildBands(shape);
+        if (!dense) {
+            spokeStep = 1;
+            labelStep = 1;
+            ringLines = null;
+            spokeLines = null;
+            //各层边框
+            for (int i = 0; i < shape.floorCount; i++) {
+                DistributionRenderer.addPolygon(borderPath, shape.floorPoints[i], angleCount);
+            }
+
+            //连接线
+            for (int i = 0; i < angleCount; i++) {
+                connectPath.moveTo(centerX, centerY);
+                connectPath.lineTo(geometry.x(i, centerX, radius), geometry.y(i, centerY, radius));
+            }
+            return;
+        }
+
+        //相邻顶点在最外层的距离、相邻标题锚点的距离
+        float spacing = (float) (2 * radius * Math.sin(Math.PI / angleCount));
+        float labelSpacing = spacing * (radius + key.textPadding) / radius;
+        spokeStep = ChartGeometry.lodStep(angleCount, spacing, MIN_SPOKE_SPACING);
+        labelStep = ChartGeometry.lodStep(angleCount, labelSpacing, Math.max(key.textSize * 1.5f, key.textWidth + key.textSize / 2));
+
+        //各层边框逐段展开
+        ringLines = new float[shape.floorCount * angleCount * 4];
+        int n = 0;
+        for (int f = 0; f < shape.floorCount; f++) {
+            float[] points = shape.floorPoints[f];
+            for (int i = 0; i < angleCount; i++) {
+                int next = (i + 1) % angleCount;
+                ringLines[n++] = points[i * 2];
+                ringLines[n++] = points[i * 2 + 1];
+                ringLines[n++] = points[next * 2];
+                ringLines[n++] = points[next * 2 + 1];
+            }
+        }
+
+        //抽稀后的连接线
+        spokeLines = new float[(angleCount + spokeStep - 1) / spokeStep * 4];
+        n = 0;
+        for (int i = 0; i < angleCount; i += spokeStep) {
+            spokeLines[n++] = centerX;
+            spokeLines[n++] = centerY;
+            spokeLines[n++] = geometry.x(i, centerX, radius);
+            spokeLines[n++] = geometry.y(i, centerY, radius);
+        }
+    }
+
+    /**
+     * 由外向内的各层多边形互相嵌套，奇偶填充时第k层与第k+1层之间的区域被覆盖k+1次：
+     * 包含全部多边形的路径正好填充第0、2、4...条色带，去掉最外层后填充第1、3、5...条色带
+     */
+    private void buildBands(ChartGeometry shape) {
+        bandPath.setFillType(Path.FillType.EVEN_ODD);
+        bandPath2.setFillType(Path.FillType.EVEN_ODD);
+        for (int i = 0; i < shape.floorCount; i++) {
+            addFloor(bandPath, shape, i);
+            if (i > 0) {
+                addFloor(bandPath2, shape, i);
+            }
+        }
+    }
+
+    private void addFloor(Path path, ChartGeometry shape, int floor) {
+        if (round) {
+            path.addCircle(centerX, centerY, radius * (shape.floorCount - floor) / shape.floorCount, Path.Direction.CW);
+        } else {
+            DistributionRenderer.addPolygon(path, shape.floorPoints[floor], key.angleCount);
+        }
+    }
+
+    /**
+     * 第i个标题是否绘制：按标题间距抽稀，并避免最后一个与第一个重叠
+     */
+    boolean isLabelVisible(int i) {
+        return i % labelStep == 0 && (i == 0 || key.angleCount - i >= labelStep);
+    }
+
+    /**
+     * 按参数构建静态图形
+     *
+     * @return 区域容纳不下图形时返回null
+     */
+    static ChartLayout build(Key key) {
+        ChartGeometry shape = ChartGeometry.compute(key.angleCount, key.floorCount, key.left, key.top,
+                key.width, key.height, key.textSize, key.textPadding, key.textWidth);
+        return shape == null ? null : new ChartLayout(key, shape);
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.distributionview;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import com.example.distributionview.core.ScaleMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 属性分布图 Drawable，用于 ImageView、列表缩略图、桌面小部件等不需要完整控件的场景
+ * 样式、标题、比例以及按绘制尺寸准备好的图形（静态图形、标题排版、覆盖区域）保存在 {@link ConstantState} 中，
+ * 通过 getConstantState().newDrawable() 得到的实例共用同一份，只有第一次绘制时计算；
+ * 与其他 Drawable 一样，修改数据会影响共用状态的所有实例，需要单独修改时先调用 {@link #mutate()}
+ * 透明度和颜色过滤属于单个实例，不需要 mutate
+ */
+public class DistributionDrawable extends Drawable {
+
+    /**
+     * 一种绘制尺寸下准备好的图形
+     */
+    private static final class Prepared {
+        final int width;
+        final int height;
+        //标题不足或区域容纳不下图形时为null
+        final ChartLayout layout;
+        final TitleLayout titleLayout;
+        //覆盖区域顶点与路径
+        final float[] areaPoints;
+        final Path areaPath = new Path();
+        boolean areaReady;
+        //覆盖区域对应的比例版本
+        int scalesVersion = -1;
+
+        Prepared(int width, int height, ChartLayout layout, TitleLayout titleLayout) {
+            this.width = width;
+            this.height = height;
+            this.layout = layout;
+            this.titleLayout = titleLayout;
+            areaPoints = layout == null ? null : new float[layout.key.angleCount * 2];
+        }
+    }
+
+    /**
+     * 共享状态，绘制和修改都在自身的锁内进行
+     * 按绘制尺寸分别保存准备好的图形（最多 {@link #MAX_SIZES} 种），不同尺寸的缩略图共用同一份状态时互不覆盖
+     */
+    static final class DistributionState extends ConstantState {
+        //最多保存的绘制尺寸种数，超出时替换最早准备的一种
+        private static final int MAX_SIZES = 4;
+
+        final DistributionStyle style;
+        //默认宽高（px）
+        final int width;
+        final int height;
+        List<String> titles;
+        float[] scales;
+        //比例版本，比例变化后各尺寸只重建覆盖区域
+        private int scalesVersion;
+        //绘制逻辑，绘制前切换到对应尺寸的静态图形
+        private final DistributionRenderer renderer;
+        //各尺寸准备好的图形
+        private final Prepared[] prepared = new Prepared[MAX_SIZES];
+        //下一个替换的位置
+        private int nextSlot;
+
+        DistributionState(DistributionStyle style, int width, int height, List<String> titles, float[] scales) {
+            this.style = style;
+            this.width = width;
+            this.height = height;
+            this.titles = titles;
+            this.scales = scales;
+            renderer = new DistributionRenderer(style);
+        }
+
+        /**
+         * mutate 时复制样式和数据，准备好的图形在第一次绘制时重新取得（静态图形仍来自共享缓存）
+         */
+        DistributionState(DistributionState source) {
+            this(source.style.copy(), source.width, source.height, new ArrayList<>(source.titles), source.scales.clone());
+        }
+
+        @Override
+        public Drawable newDrawable() {
+            return new DistributionDrawable(this);
+        }
+
+        @Override
+        public Drawable newDrawable(Resources res) {
+            return new DistributionDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+
+        synchronized void setTitles(List<String> titles) {
+            this.titles = new ArrayList<>(titles);
+            Arrays.fill(prepared, null);
+        }
+
+        synchronized void setScales(float[] values) {
+            float[] copy = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                copy[i] = ScaleMath.clamp(values[i]);
+            }
+            scales = copy;
+            scalesVersion++;
+        }
+
+        /**
+         * 取得尺寸对应的图形，没有时度量标题并取得静态图形；比例变化后重建覆盖区域
+         */
+        private Prepared prepare(int width, int height) {
+            Prepared current = null;
+            for (Prepared p : prepared) {
+                if (p != null && p.width == width && p.height == height) {
+                    current = p;
+                    break;
+                }
+            }
+            if (current == null) {
+                ChartLayout layout = null;
+                TitleLayout titleLayout = null;
+                if (titles.size() >= style.angleCount) {
+                    titleLayout = renderer.measureTitles(titles, style.titleLimitWidth(Math.min(width, height)));
+                    if (renderer.buildLayout(0, 0, width, height, titleLayout.maxWidth)) {
+                        layout = renderer.getLayout();
+                    }
+                }
+                current = new Prepared(width, height, layout, titleLayout);
+                prepared[nextSlot] = current;
+                nextSlot = (nextSlot + 1) % MAX_SIZES;
+            }
+            renderer.setLayout(current.layout);
+            if (current.layout != null && current.scalesVersion != scalesVersion) {
+                current.areaReady = renderer.buildArea(scales, scales.length, current.areaPoints, current.areaPath);
+                current.scalesVersion = scalesVersion;
+            }
+            return current;
+        }
+
+        synchronized void draw(Canvas canvas, int width, int height) {
+            Prepared current = prepare(width, height);
+            if (current.layout == null) {
+                return;
+            }
+            renderer.drawWeb(canvas);
+            renderer.drawTitles(canvas, current.titleLayout);
+            if (current.areaReady) {
+                renderer.drawArea(canvas, current.areaPath, current.areaPoints);
+            }
+        }
+    }
+
+    private DistributionState state;
+    private boolean mutated;
+    //透明度与颜色过滤，只属于当前实例
+    private int alpha = 255;
+    private ColorFilter colorFilter;
+    //透明度或颜色过滤生效时使用的图层画笔
+    private Paint layerPaint;
+
+    /**
+     * 按描述创建，spec 会被复制，之后修改 spec 不影响 Drawable
+     * 默认宽高为 spec 的宽高
+     */
+    public DistributionDrawable(DistributionSpec spec) {
+        this(new DistributionState(spec.style.copy(), spec.width, spec.height,
+                new ArrayList<>(spec.titles), spec.scales.clone()));
+    }
+
+    private DistributionDrawable(DistributionState state) {
+        this.state = state;
+    }
+
+    /**
+     * 设置元素标题（不得少于元素个数），影响共用状态的所有实例
+     */
+    public DistributionDrawable setTitles(List<String> titles) {
+        state.setTitles(titles);
+        invalidateSelf();
+        return this;
+    }
+
+    /**
+     * 设置各元素对应比例（不得少于元素个数，大于1按1处理），影响共用状态的所有实例
+     */
+    public DistributionDrawable setScales(float[] scales) {
+        state.setScales(scales);
+        invalidateSelf();
+        return this;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        Rect bounds = getBounds();
+        if (bounds.isEmpty()) {
+            return;
+        }
+        int saveCount;
+        if (alpha < 255 || colorFilter != null) {
+            if (layerPaint == null) {
+                layerPaint = new Paint();
+            }
+            layerPaint.setAlpha(alpha);
+            layerPaint.setColorFilter(colorFilter);
+            saveCount = canvas.saveLayer(bounds.left, bounds.top, bounds.right, bounds.bottom, layerPaint);
+        } else {
+            saveCount = canvas.save();
+        }
+        canvas.translate(bounds.left, bounds.top);
+        state.draw(canvas, bounds.width(), bounds.height());
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        this.colorFilter = colorFilter;
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return state.width;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return state.height;
+    }
+
+    @Override
+    public ConstantState getConstantState() {
+        return state;
+    }
+
+    /**
+     * 复制样式和数据，之后的修改只影响当前实例
+     */
+    @Override
+    public Drawable mutate() {
+        if (!mutated && super.mutate() == this) {
+            synchronized (state) {
+                state = new DistributionState(state);
+            }
+            mutated = true;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.distributionview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Path;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后台导出属性分布图，不依赖 View 和主线程
+ * 每张图在工作线程中独立绘制（静态图形可在线程间共享），线程数默认等于 CPU 核数
+ * 导出 PNG 时位图通过 {@link BitmapPool} 复用；返回的 Bitmap 用完后可通过 {@link #recycle(Bitmap)} 归还
+ */
+public final class DistributionExporter {
+    //位图池默认上限（字节）
+    private static final long DEFAULT_POOL_BYTES = 32L * 1024 * 1024;
+
+    private final ExecutorService executor;
+    private final BitmapPool bitmapPool;
+
+    public DistributionExporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public DistributionExporter(int threadCount) {
+        this(threadCount, DEFAULT_POOL_BYTES);
+    }
+
+    /**
+     * @param threadCount 工作线程数
+     * @param poolBytes   复用位图的总字节数上限
+     */
+    public DistributionExporter(int threadCount, long poolBytes) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1: " + threadCount);
+        }
+        executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "DistributionExporter-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        bitmapPool = new BitmapPool(poolBytes);
+    }
+
+    /**
+     * 在任意 Canvas 上绘制一张图，坐标从 (0, 0) 开始，大小为 spec 的宽高
+     * 标题或比例个数不足时只绘制能绘制的部分，与 DistributionView 一致
+     */
+    public static void draw(Canvas canvas, DistributionSpec spec) {
+        DistributionStyle style = spec.style;
+        if (spec.titles.size() < style.angleCount) {
+            return;
+        }
+        DistributionRenderer renderer = new DistributionRenderer(style);
+        TitleLayout titleLayout = renderer.measureTitles(spec.titles,
+                style.titleLimitWidth(Math.min(spec.width, spec.height)));
+        if (!renderer.buildLayout(0, 0, spec.width, spec.height, titleLayout.maxWidth)) {
+            return;
+        }
+        renderer.drawWeb(canvas);
+        renderer.drawTitles(canvas, titleLayout);
+        float[] points = new float[style.angleCount * 2];
+        Path areaPath = new Path();
+        if (renderer.buildArea(spec.scales, spec.scales.length, points, areaPath)) {
+            renderer.drawArea(canvas, areaPath, points);
+        }
+    }
+
+    /**
+     * 在调用线程绘制一张图
+     */
+    public Bitmap render(DistributionSpec spec) {
+        Bitmap bitmap = bitmapPool.obtain(spec.width, spec.height);
+        draw(new Canvas(bitmap), spec);
+        return bitmap;
+    }
+
+    /**
+     * 提交到工作线程绘制，spec 会被复制，提交后可继续修改
+     */
+    public Future<Bitmap> submit(DistributionSpec spec) {
+        final DistributionSpec snapshot = spec.copy();
+        return executor.submit(new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() {
+                return render(snapshot);
+            }
+        });
+    }
+
+    /**
+     * 并行绘制多张图，结果顺序与 specs 一致
+     */
+    public List<Bitmap> renderAll(List<DistributionSpec> specs) throws InterruptedException, ExecutionException {
+        List<Future<Bitmap>> futures = new ArrayList<>(specs.size());
+        for (DistributionSpec spec : specs) {
+            futures.add(submit(spec));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * 提交到工作线程绘制并压缩为 PNG，位图在压缩后立即归还复用
+     */
+    public Future<byte[]> submitPng(DistributionSpec spec) {
+        final DistributionSpec snapshot = spec.copy();
+        return executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                Bitmap bitmap = render(snapshot);
+                try {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+                    return out.toByteArray();
+                } finally {
+                    bitmapPool.recycle(bitmap);
+                }
+            }
+        });
+    }
+
+    /**
+     * 并行导出多张 PNG，结果顺序与 specs 一致
+     */
+    public List<byte[]> exportPngAll(List<DistributionSpec> specs) throws InterruptedException, ExecutionException {
+        List<Future<byte[]>> futures = new ArrayList<>(specs.size());
+        for (DistributionSpec spec : specs) {
+            futures.add(submitPng(spec));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * 归还不再使用的位图，供后续导出复用
+     */
+    public void recycle(Bitmap bitmap) {
+        bitmapPool.recycle(bitmap);
+    }
+
+    /**
+     * 停止工作线程并回收池中位图，已提交的任务会继续完成
+     */
+    public void shutdown() {
+        executor.shutdown();
+        bitmapPool.clear();
+    }
+
+    /**
+     * 按顺序等待结果，任意一个失败时取消其余任务
+     */
+    private static <T> List<T> collect(List<Future<T>> futures) throws InterruptedException, ExecutionException {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,464 @@
+package com.example.distributionview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.os.Bundle;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.OverScroller;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 属性分布图宫格，一个控件内绘制大量小图
+ * 所有格子共用同一份图形（顶点表、背景网格、文本锚点），网格录制一次后每个格子只需平移、绘制标题和覆盖区域
+ * 各格子的覆盖区域在第一次绘制时构建并保存，数据变化（notify）后才重建，滑动时不再读取数据源
+ * 只绘制可见的格子，支持纵向滑动和无障碍滚动
+ */
+public class DistributionGridView extends View {
+
+    /**
+     * 宫格数据源
+     */
+    public interface Adapter {
+        /**
+         * 格子个数
+         */
+        int getCount();
+
+        /**
+         * 第position个格子的属性标题（不得少于元素个数）
+         */
+        List<String> getTitles(int position);
+
+        /**
+         * 把第position个格子的各元素比例（0~1）写入out，返回写入的个数
+         */
+        int getScales(int position, float[] out);
+    }
+
+    //样式，所有格子共用
+    private final DistributionStyle style;
+    //绘制逻辑与共用的静态图形，坐标相对于格子左上角
+    private final DistributionRenderer renderer;
+    //共用的背景网格缓存
+    private final StaticLayer webLayer = new StaticLayer();
+    private Adapter adapter;
+    //期望的格子边长（px），实际边长会拉伸以填满一行
+    private float cellSize = 300f;
+    //格子间距（px）
+    private float cellSpacing = 0f;
+    //列数、行数与实际格子边长
+    private int columnCount = 1;
+    private int rowCount = 0;
+    private float cellWidth = 0f;
+    //各格子的标题排版，相同的标题列表共用一份，标题不足时为null
+    private TitleLayout[] titleLayouts = new TitleLayout[0];
+    //所有格子中最宽的标题宽度
+    private float textWidth = 0f;
+    //标题需要重新度量
+    private boolean titlesDirty = true;
+    //上次度量标题时的格子边长
+    private float measuredCellWidth = -1f;
+    //读取格子比例的缓冲区，构建覆盖区域时复用
+    private float[] cellScales = new float[0];
+    //各格子的覆盖区域顶点与路径，第一次绘制时构建
+    private float[][] areaPoints = new float[0][];
+    private Path[] areaPaths = new Path[0];
+    //覆盖区域已构建 / 比例足够可以绘制
+    private boolean[] areaBuilt = new boolean[0];
+    private boolean[] areaReady = new boolean[0];
+    private boolean layoutReady = false;
+
+    private final OverScroller scroller;
+    private VelocityTracker velocityTracker;
+    private final int touchSlop;
+    private final int minFlingVelocity;
+    private final int maxFlingVelocity;
+    private float lastTouchY;
+    private float downTouchY;
+    private boolean isDragging = false;
+
+    public DistributionGridView(Context context) {
+        this(context, null);
+    }
+
+    public DistributionGridView(Context context, AttributeSet attributeSet) {
+        this(context, attributeSet, 0);
+    }
+
+    public DistributionGridView(Context context, AttributeSet attributeSet, int defStyleAttr) {
+        super(context, attributeSet, defStyleAttr);
+        style = DistributionStyle.obtain(context, attributeSet);
+        renderer = new DistributionRenderer(style);
+
+        TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.DistributionGridView);
+        if (typedArray != null) {
+            //格子边长
+            cellSize = typedArray.getDimension(R.styleable.DistributionGridView_cell_size, cellSize);
+            //格子间距
+            cellSpacing = typedArray.getDimension(R.styleable.DistributionGridView_cell_spacing, cellSpacing);
+            typedArray.recycle();
+        }
+
+        scroller = new OverScroller(context);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        touchSlop = configuration.getScaledTouchSlop();
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        setVerticalScrollBarEnabled(true);
+    }
+
+    /**
+     * 设置数据源
+     */
+    public DistributionGridView setAdapter(Adapter adapter) {
+        this.adapter = adapter;
+        notifyDataSetChanged();
+        return this;
+    }
+
+    /**
+     * 数据源内容变化后调用，重新计算标题预留空间和行数
+     */
+    public void notifyDataSetChanged() {
+        titlesDirty = true;
+        buildLayout();
+        scrollTo(0, clampScrollY(getScrollY()));
+        invalidate();
+    }
+
+    /**
+     * 只有第position个格子的比例变化时调用，只重建这一个格子的覆盖区域；标题变化需调用 {@link #notifyDataSetChanged()}
+     */
+    public void notifyItemChanged(int position) {
+        if (position >= 0 && position < areaBuilt.length) {
+            areaBuilt[position] = false;
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置期望的格子边长和间距（px）
+     */
+    public DistributionGridView setCellSize(float cellSize, float cellSpacing) {
+        this.cellSize = cellSize;
+        this.cellSpacing = cellSpacing;
+        buildLayout();
+        invalidate();
+        return this;
+    }
+
+    /**
+     * 设置层数
+     */
+    public DistributionGridView setFloorCount(int floorCount) {
+        style.floorCount = floorCount;
+        buildLayout();
+        invalidate();
+        return this;
+    }
+
+    /**
+     * 设置属性个数
+     */
+    public DistributionGridView setAngleCount(int angleCount) {
+        style.angleCount = angleCount;
+        titlesDirty = true;
+        buildLayout();
+        invalidate();
+        return this;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        buildLayout();
+        scrollTo(0, clampScrollY(getScrollY()));
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        webLayer.release();
+        scroller.abortAnimation();
+    }
+
+    /**
+     * 计算行列和格子边长，度量标题，并构建所有格子共用的静态图形
+     */
+    private void buildLayout() {
+        layoutReady = false;
+        webLayer.invalidate();
+        float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        if (width <= 0) {
+            return;
+        }
+        columnCount = Math.max(1, (int) ((width + cellSpacing) / (cellSize + cellSpacing)));
+        cellWidth = (width - cellSpacing * (columnCount - 1)) / columnCount;
+        int count = adapter == null ? 0 : adapter.getCount();
+        rowCount = (count + columnCount - 1) / columnCount;
+        //未指定文本最大宽度时按格子边长限制，边长变化也需要重新度量
+        if (titlesDirty || (style.textMaxWidth <= 0 && cellWidth != measuredCellWidth)) {
+            measureTitles(count);
+        }
+        if (!renderer.buildLayout(0, 0, cellWidth, cellWidth, textWidth)) {
+            return;
+        }
+        if (cellScales.length < style.angleCount) {
+            cellScales = new float[style.angleCount];
+        }
+        //图形或数据变化，所有覆盖区域重建；路径对象保留复用
+        if (areaBuilt.length != count) {
+            areaPoints = Arrays.copyOf(areaPoints, count);
+            areaPaths = Arrays.copyOf(areaPaths, count);
+            areaBuilt = new boolean[count];
+            areaReady = new boolean[count];
+        } else {
+            Arrays.fill(areaBuilt, false);
+        }
+        layoutReady = true;
+    }
+
+    /**
+     * 度量所有格子的标题，相同的标题列表只度量一次
+     */
+    private void measureTitles(int count) {
+        titleLayouts = new TitleLayout[count];
+        textWidth = 0f;
+        float limitWidth = style.titleLimitWidth(cellWidth);
+        Map<List<String>, TitleLayout> measured = new HashMap<>();
+        for (int position = 0; position < count; position++) {
+            List<String> titles = adapter.getTitles(position);
+            if (titles.size() < style.angleCount) {
+                continue;
+            }
+            TitleLayout titleLayout = measured.get(titles);
+            if (titleLayout == null) {
+                titleLayout = renderer.measureTitles(titles, limitWidth);
+                measured.put(titles, titleLayout);
+                textWidth = Math.max(textWidth, titleLayout.maxWidth);
+            }
+            titleLayouts[position] = titleLayout;
+        }
+        titlesDirty = false;
+        measuredCellWidth = cellWidth;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (!layoutReady || adapter == null || rowCount == 0) {
+            return;
+        }
+        //共用的背景网格只录制一次
+        int cellPixels = (int) Math.ceil(cellWidth);
+        Canvas layerCanvas = webLayer.beginRecording(canvas, cellPixels, cellPixels);
+        if (layerCanvas != null) {
+            renderer.drawWeb(layerCanvas);
+            webLayer.endRecording();
+        }
+
+        //只绘制可见的行
+        float rowHeight = cellWidth + cellSpacing;
+        int firstRow = Math.max(0, (int) ((getScrollY() - getPaddingTop()) / rowHeight));
+        int lastRow = Math.min(rowCount - 1, (int) ((getScrollY() + getHeight() - getPaddingTop()) / rowHeight));
+        int count = Math.min(Math.min(adapter.getCount(), titleLayouts.length), areaBuilt.length);
+        //整个宫格只保存一次画布状态，格子之间按相对位移平移
+        int saveCount = canvas.save();
+        float translateX = 0f;
+        float translateY = 0f;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                int position = row * columnCount + column;
+                if (position >= count) {
+                    break;
+                }
+                TitleLayout titleLayout = titleLayouts[position];
+                if (titleLayout == null) {
+                    continue;
+                }
+                float cellX = getPaddingLeft() + column * rowHeight;
+                float cellY = getPaddingTop() + row * rowHeight;
+                canvas.translate(cellX - translateX, cellY - translateY);
+                translateX = cellX;
+                translateY = cellY;
+                webLayer.draw(canvas);
+                renderer.drawTitles(canvas, titleLayout);
+                if (!areaBuilt[position]) {
+                    buildArea(position);
+                }
+                if (areaReady[position]) {
+                    renderer.drawArea(canvas, areaPaths[position], areaPoints[position]);
+                }
+            }
+        }
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * 读取第position个格子的比例并构建覆盖区域，只在第一次绘制或数据变化后调用
+     */
+    private void buildArea(int position) {
+        int pointCount = style.angleCount * 2;
+        if (areaPoints[position] == null || areaPoints[position].length != pointCount) {
+            areaPoints[position] = new float[pointCount];
+        }
+        if (areaPaths[position] == null) {
+            areaPaths[position] = new Path();
+        }
+        int scaleCount = adapter.getScales(position, cellScales);
+        areaReady[position] = renderer.buildArea(cellScales, scaleCount, areaPoints[position], areaPaths[position]);
+        areaBuilt[position] = true;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(event);
+        float y = event.getY();
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                scroller.forceFinished(true);
+                downTouchY = y;
+                lastTouchY = y;
+                isDragging = false;
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!isDragging && Math.abs(y - downTouchY) > touchSlop) {
+                    isDragging = true;
+                }
+                if (isDragging) {
+                    scrollTo(0, clampScrollY(getScrollY() + (int) (lastTouchY - y)));
+                    awakenScrollBars();
+                }
+                lastTouchY = y;
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (isDragging) {
+                    velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                    float velocityY = velocityTracker.getYVelocity();
+                    if (Math.abs(velocityY) > minFlingVelocity) {
+                        scroller.fling(0, getScrollY(), 0, (int) -velocityY, 0, 0, 0, getMaxScrollY());
+                        postInvalidateOnAnimation();
+                    }
+                } else {
+                    performClick();
+                }
+                recycleVelocityTracker();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                recycleVelocityTracker();
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Override
+    public boolean canScrollVertically(int direction) {
+        return direction < 0 ? getScrollY() > 0 : getScrollY() < getMaxScrollY();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        if (getMaxScrollY() > 0) {
+            info.setScrollable(true);
+            if (canScrollVertically(-1)) {
+                info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_BACKWARD);
+            }
+            if (canScrollVertically(1)) {
+                info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_FORWARD);
+            }
+        }
+    }
+
+    /**
+     * 无障碍滚动：每次滚动一屏（去掉上下内边距）
+     */
+    @Override
+    public boolean performAccessibilityAction(int action, Bundle arguments) {
+        if (super.performAccessibilityAction(action, arguments)) {
+            return true;
+        }
+        int page = getHeight() - getPaddingTop() - getPaddingBottom();
+        int target;
+        if (action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD) {
+            target = clampScrollY(getScrollY() + page);
+        } else if (action == AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
+            target = clampScrollY(getScrollY() - page);
+        } else {
+            return false;
+        }
+        if (target == getScrollY()) {
+            return false;
+        }
+        scroller.forceFinished(true);
+        scrollTo(0, target);
+        awakenScrollBars();
+        return true;
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            scrollTo(0, clampScrollY(scroller.getCurrY()));
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    protected int computeVerticalScrollRange() {
+        return getContentHeight();
+    }
+
+    @Override
+    protected int computeVerticalScrollOffset() {
+        return getScrollY();
+    }
+
+    @Override
+    protected int computeVerticalScrollExtent() {
+        return getHeight();
+    }
+
+    private void recycleVelocityTracker() {
+        isDragging = false;
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    private int getContentHeight() {
+        if (rowCount == 0) {
+            return getPaddingTop() + getPaddingBottom();
+        }
+        return (int) Math.ceil(getPaddingTop() + getPaddingBottom() + rowCount * cellWidth + (rowCount - 1) * cellSpacing);
+    }
+
+    private int getMaxScrollY() {
+        return Math.max(0, getContentHeight() - getHeight());
+    }
+
+    private int clampScrollY(int scrollY) {
+        return Math.max(0, Math.min(scrollY, getMaxScrollY()));
+    }
+}
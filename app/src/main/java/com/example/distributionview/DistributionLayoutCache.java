@@ -0,0 +1,123 @@
+package com.example.distributionview;
+
+import android.util.LruCache;
+
+/**
+ * 进程内共享的静态图形与标题排版缓存（LRU）
+ * 边数、层数、尺寸、文本大小、间距和标题长度都相同的控件共用同一份图形；
+ * 标题、文本大小、字体和最大宽度都相同的控件共用同一份标题排版（省略结果、宽度与字形），
+ * RecyclerView 中复用的条目重新绑定时只需查表，不再重新度量标题、计算顶点和路径
+ */
+public final class DistributionLayoutCache {
+    //默认最多缓存的图形个数
+    private static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final LruCache<ChartLayout.Key, ChartLayout> CACHE = new LruCache<ChartLayout.Key, ChartLayout>(DEFAULT_MAX_SIZE) {
+        @Override
+        protected ChartLayout create(ChartLayout.Key key) {
+            return ChartLayout.build(key);
+        }
+    };
+
+    //标题排版，由调用方度量后放入
+    private static final LruCache<TitleLayout.Key, TitleLayout> TITLES = new LruCache<>(DEFAULT_MAX_SIZE);
+
+    private DistributionLayoutCache() {
+    }
+
+    /**
+     * 获取参数对应的静态图形，没有缓存时构建并放入缓存；区域容纳不下图形时返回null
+     */
+    static ChartLayout obtain(ChartLayout.Key key) {
+        return CACHE.get(key);
+    }
+
+    /**
+     * 获取参数对应的标题排版，没有缓存时返回null，由调用方度量后 {@link #putTitles}
+     */
+    static TitleLayout obtainTitles(TitleLayout.Key key) {
+        return TITLES.get(key);
+    }
+
+    static void putTitles(TitleLayout.Key key, TitleLayout titleLayout) {
+        TITLES.put(key, titleLayout);
+    }
+
+    /**
+     * 设置最多缓存的图形个数
+     */
+    public static void setMaxSize(int maxSize) {
+        CACHE.resize(maxSize);
+    }
+
+    /**
+     * 当前缓存的图形个数
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * 命中次数
+     */
+    public static int getHitCount() {
+        return CACHE.hitCount();
+    }
+
+    /**
+     * 未命中次数（需要重新构建的次数）
+     */
+    public static int getMissCount() {
+        return CACHE.missCount();
+    }
+
+    /**
+     * 因超出容量被淘汰的次数
+     */
+    public static int getEvictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    /**
+     * 设置最多缓存的标题排版个数
+     */
+    public static void setTitleMaxSize(int maxSize) {
+        TITLES.resize(maxSize);
+    }
+
+    /**
+     * 当前缓存的标题排版个数
+     */
+    public static int titleSize() {
+        return TITLES.size();
+    }
+
+    /**
+     * 标题排版命中次数
+     */
+    public static int getTitleHitCount() {
+        return TITLES.hitCount();
+    }
+
+    /**
+     * 标题排版未命中次数（需要重新度量的次数）
+     */
+    public static int getTitleMissCount() {
+        return TITLES.missCount();
+    }
+
+    /**
+     * 标题排版因超出容量被淘汰的次数
+     */
+    public static int getTitleEvictionCount() {
+        return TITLES.evictionCount();
+    }
+
+    /**
+     * 清空缓存（静态图形与标题排版）
+     */
+    public static void clear() {
+        CACHE.evictAll();
+        TITLES.evictAll();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.distributionview;
+
+import com.example.distributionview.core.LatencyHistogram;
+
+/**
+ * 绘制耗时统计快照，由 {@link DistributionView#getMetrics()} 生成，生成后不再变化，可在任意线程读取
+ * 各阶段耗时为纳秒，百分位为直方图分段上界（误差不超过12.5%）
+ */
+public final class DistributionMetrics {
+    //绘制前的重建：标题度量、静态图形、覆盖区域路径
+    public static final int PHASE_LAYOUT = 0;
+    //各层背景填充
+    public static final int PHASE_FLOORS = 1;
+    //各层边框
+    public static final int PHASE_BORDERS = 2;
+    //连接线
+    public static final int PHASE_SPOKES = 3;
+    //标题文本
+    public static final int PHASE_TEXT = 4;
+    //叠加数据
+    public static final int PHASE_SERIES = 5;
+    //覆盖区域
+    public static final int PHASE_AREA = 6;
+    //整个 onDraw
+    public static final int PHASE_FRAME = 7;
+    public static final int PHASE_COUNT = 8;
+
+    private static final String[] PHASE_NAMES = {
+            "layout", "floors", "borders", "spokes", "text", "series", "area", "frame"
+    };
+
+    private final LatencyHistogram[] phases;
+    private final long frameBudgetNanos;
+    private final long overBudgetFrameCount;
+    private final long staticLayerHitCount;
+    private final long staticLayerMissCount;
+    private final long allocationCount;
+    private final int layoutCacheHitCount;
+    private final int layoutCacheMissCount;
+    private final int titleCacheHitCount;
+    private final int titleCacheMissCount;
+
+    DistributionMetrics(LatencyHistogram[] phases, long frameBudgetNanos, long overBudgetFrameCount,
+                        long staticLayerHitCount, long staticLayerMissCount, long allocationCount) {
+        this.phases = phases;
+        this.frameBudgetNanos = frameBudgetNanos;
+        this.overBudgetFrameCount = overBudgetFrameCount;
+        this.staticLayerHitCount = staticLayerHitCount;
+        this.staticLayerMissCount = staticLayerMissCount;
+        this.allocationCount = allocationCount;
+        this.layoutCacheHitCount = DistributionLayoutCache.getHitCount();
+        this.layoutCacheMissCount = DistributionLayoutCache.getMissCount();
+        this.titleCacheHitCount = DistributionLayoutCache.getTitleHitCount();
+        this.titleCacheMissCount = DistributionLayoutCache.getTitleMissCount();
+    }
+
+    /**
+     * 阶段名称，用于上报
+     */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /**
+     * 阶段的执行次数；静态图层缓存有效时背景、边框、连接线和文本不会执行
+     */
+    public long getCount(int phase) {
+        return phases[phase].getCount();
+    }
+
+    public long getPercentileNanos(int phase, double percentile) {
+        return phases[phase].getPercentile(percentile);
+    }
+
+    public long getP50Nanos(int phase) {
+        return phases[phase].getPercentile(50);
+    }
+
+    public long getP95Nanos(int phase) {
+        return phases[phase].getPercentile(95);
+    }
+
+    public long getP99Nanos(int phase) {
+        return phases[phase].getPercentile(99);
+    }
+
+    public long getMaxNanos(int phase) {
+        return phases[phase].getMax();
+    }
+
+    public long getMeanNanos(int phase) {
+        return phases[phase].getMean();
+    }
+
+    /**
+     * 统计的帧数
+     */
+    public long getFrameCount() {
+        return phases[PHASE_FRAME].getCount();
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * onDraw 耗时超出帧预算的次数
+     */
+    public long getOverBudgetFrameCount() {
+        return overBudgetFrameCount;
+    }
+
+    /**
+     * 静态图层缓存直接复用的次数
+     */
+    public long getStaticLayerHitCount() {
+        return staticLayerHitCount;
+    }
+
+    /**
+     * 静态图层重新录制的次数
+     */
+    public long getStaticLayerMissCount() {
+        return staticLayerMissCount;
+    }
+
+    /**
+     * 绘制相关的内存分配次数：缓冲区扩容、标题度量、缓存位图和显示列表的创建
+     */
+    public long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * 进程内静态图形缓存的命中次数（所有控件共用）
+     */
+    public int getLayoutCacheHitCount() {
+        return layoutCacheHitCount;
+    }
+
+    /**
+     * 进程内静态图形缓存的未命中次数（所有控件共用）
+     */
+    public int getLayoutCacheMissCount() {
+        return layoutCacheMissCount;
+    }
+
+    /**
+     * 进程内标题排版缓存的命中次数（所有控件共用）
+     */
+    public int getTitleCacheHitCount() {
+        return titleCacheHitCount;
+    }
+
+    /**
+     * 进程内标题排版缓存的未命中次数（所有控件共用）
+     */
+    public int getTitleCacheMissCount() {
+        return titleCacheMissCount;
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.distributionview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+import java.util.List;
+
+/**
+ * 属性分布图绘制逻辑
+ * 根据样式和绘制区域取得静态图形（各层背景、边框、连接线、文本锚点），并绘制覆盖区域
+ * DistributionView 和 DistributionGridView 共用，坐标相对于 buildLayout 传入的区域
+ *
+ * 绘制按固定顺序分为若干步：背景、边框、连接线、标题、覆盖区域填充、覆盖区域连接线与边框、圆点
+ * 每一步使用各自预先配置好的画笔，样式变化时在 {@link #applyStyle()} 中统一设置，绘制时不再切换画笔状态；
+ * 各步都不修改画布的矩阵和裁剪，不需要 save/restore
+ */
+final class DistributionRenderer {
+    //覆盖区域圆点半径
+    static final float DOT_RADIUS = 5f;
+
+    final DistributionStyle style;
+    //背景：两种间隔颜色各一支
+    private final Paint floorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint floorPaint2 = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //边框
+    private final Paint gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //连接线
+    private final Paint spokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //标题画笔，度量与绘制使用同一支
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    //覆盖区域填充、连接线、边框、圆点
+    private final Paint areaFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint areaConnectPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint areaStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint markerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //当前的静态图形，可能与其他控件共享，只读
+    private ChartLayout layout;
+    //绘制耗时统计
+    private RenderMetrics metrics = RenderMetrics.NONE;
+    //覆盖区域连接线与圆点的坐标，复用
+    private float[] lineBuffer = new float[0];
+
+    DistributionRenderer(DistributionStyle style) {
+        this.style = style;
+        floorPaint.setStyle(Paint.Style.FILL);
+        floorPaint2.setStyle(Paint.Style.FILL);
+        gridPaint.setStyle(Paint.Style.STROKE);
+        spokePaint.setStyle(Paint.Style.STROKE);
+        areaFillPaint.setStyle(Paint.Style.FILL);
+        areaConnectPaint.setStyle(Paint.Style.STROKE);
+        areaStrokePaint.setStyle(Paint.Style.STROKE);
+        //圆点用圆头的点批量绘制
+        markerPaint.setStyle(Paint.Style.STROKE);
+        markerPaint.setStrokeCap(Paint.Cap.ROUND);
+        markerPaint.setStrokeWidth(DOT_RADIUS * 2);
+        applyStyle();
+    }
+
+    /**
+     * 样式中的颜色、线宽、文本大小、字体变化后调用
+     */
+    void applyStyle() {
+        floorPaint.setColor(style.bgColor);
+        floorPaint2.setColor(style.bgColor2);
+        gridPaint.setColor(style.lineColor);
+        gridPaint.setStrokeWidth(style.paintSize);
+        spokePaint.setColor(style.connectLineColor);
+        spokePaint.setStrokeWidth(style.paintSize);
+        textPaint.setColor(style.textColor);
+        textPaint.setTextSize(style.textSize);
+        textPaint.setTypeface(style.typeface);
+        areaFillPaint.setColor(style.areaColor);
+        areaConnectPaint.setColor(style.areaConnectLineColor);
+        areaConnectPaint.setStrokeWidth(style.paintSize);
+        areaStrokePaint.setColor(style.areaLineColor);
+        areaStrokePaint.setStrokeWidth(style.paintSize);
+        markerPaint.setColor(style.areaLineColor);
+    }
+
+    /**
+     * 按当前文本大小和字体度量标题，超出limitWidth的标题省略结尾
+     * 结果从进程内共享的缓存取得，相同的标题、字体和宽度只度量一次
+     */
+    TitleLayout measureTitles(List<String> titles, float limitWidth) {
+        int count = Math.min(titles.size(), style.angleCount);
+        TitleLayout.Key key = new TitleLayout.Key(titles, count, textPaint.getTextSize(), textPaint.getTypeface(), limitWidth);
+        TitleLayout titleLayout = DistributionLayoutCache.obtainTitles(key);
+        if (titleLayout == null) {
+            titleLayout = TitleLayout.measure(titles, count, textPaint, limitWidth);
+            DistributionLayoutCache.putTitles(key, titleLayout);
+        }
+        return titleLayout;
+    }
+
+    void setMetrics(RenderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 当前的静态图形，未构建时为null
+     */
+    ChartLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * 直接使用其他线程准备好的静态图形，null表示没有可绘制的图形
+     */
+    void setLayout(ChartLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * 在 (left, top, width, height) 区域内准备静态图形，只在尺寸或配置变化时调用
+     * 相同参数的图形从 {@link DistributionLayoutCache} 中直接取得
+     *
+     * @param textWidth 最宽的标题宽度，用于预留文本空间
+     * @return 区域能否容纳图形
+     */
+    boolean buildLayout(float left, float top, float width, float height, float textWidth) {
+        ChartLayout.Key key = new ChartLayout.Key(style.angleCount, style.floorCount, left, top, width, height,
+                style.textSize, style.defaultTextPadding, textWidth);
+        if (layout == null || !layout.key.equals(key)) {
+            layout = DistributionLayoutCache.obtain(key);
+        }
+        return layout != null;
+    }
+
+    /**
+     * 按比例（0~1）构建覆盖区域，顶点写入 outPoints，路径写入 outPath
+     *
+     * @return 比例个数不足时返回false
+     */
+    boolean buildArea(float[] scales, int count, float[] outPoints, Path outPath) {
+        if (!buildAreaPoints(scales, count, outPoints)) {
+            return false;
+        }
+        buildAreaPath(outPoints, outPath);
+        return true;
+    }
+
+    /**
+     * 由覆盖区域顶点生成路径，高密度模式下按像素精度简化
+     */
+    void buildAreaPath(float[] areaPoints, Path outPath) {
+        outPath.rewind();
+        if (layout.dense) {
+            addSimplifiedPolygon(outPath, areaPoints, layout.key.angleCount);
+        } else {
+            addPolygon(outPath, areaPoints, layout.key.angleCount);
+        }
+    }
+
+    /**
+     * 只计算覆盖区域顶点，不生成路径
+     *
+     * @return 比例个数不足时返回false
+     */
+    boolean buildAreaPoints(float[] scales, int count, float[] outPoints) {
+        if (layout == null || count < layout.key.angleCount) {
+            return false;
+        }
+        layout.shape.dataPoints(scales, 0, outPoints, 0);
+        return true;
+    }
+
+    /**
+     * 覆盖区域的绘制范围：各顶点、显示连接线时包含中心点，并外扩线宽、圆点半径和抗锯齿的一像素
+     */
+    void areaBounds(float[] areaPoints, Rect out) {
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < layout.key.angleCount; i++) {
+            float x = areaPoints[i * 2];
+            float y = areaPoints[i * 2 + 1];
+            left = Math.min(left, x);
+            top = Math.min(top, y);
+            right = Math.max(right, x);
+            bottom = Math.max(bottom, y);
+        }
+        if (style.isShowConnect) {
+            left = Math.min(left, layout.centerX);
+            top = Math.min(top, layout.centerY);
+            right = Math.max(right, layout.centerX);
+            bottom = Math.max(bottom, layout.centerY);
+        }
+        setOutsetBounds(out, left, top, right, bottom);
+    }
+
+    /**
+     * 只更新第axis个顶点
+     */
+    void updateAreaPoint(float[] scales, int axis, float[] areaPoints) {
+        float ur = layout.radius * scales[axis];
+        areaPoints[axis * 2] = layout.geometry.x(axis, layout.centerX, ur);
+        areaPoints[axis * 2 + 1] = layout.geometry.y(axis, layout.centerY, ur);
+    }
+
+    /**
+     * 第axis个顶点影响的绘制范围：该顶点、相邻两个顶点（两条边）、显示连接线时包含中心点
+     */
+    void axisBounds(float[] areaPoints, int axis, Rect out) {
+        int angleCount = layout.key.angleCount;
+        int prev = (axis + angleCount - 1) % angleCount;
+        int next = (axis + 1) % angleCount;
+        float x = areaPoints[axis * 2];
+        float y = areaPoints[axis * 2 + 1];
+        float left = Math.min(x, Math.min(areaPoints[prev * 2], areaPoints[next * 2]));
+        float top = Math.min(y, Math.min(areaPoints[prev * 2 + 1], areaPoints[next * 2 + 1]));
+        float right = Math.max(x, Math.max(areaPoints[prev * 2], areaPoints[next * 2]));
+        float bottom = Math.max(y, Math.max(areaPoints[prev * 2 + 1], areaPoints[next * 2 + 1]));
+        if (style.isShowConnect) {
+            left = Math.min(left, layout.centerX);
+            top = Math.min(top, layout.centerY);
+            right = Math.max(right, layout.centerX);
+            bottom = Math.max(bottom, layout.centerY);
+        }
+        setOutsetBounds(out, left, top, right, bottom);
+    }
+
+    /**
+     * 外扩线宽、圆点半径和抗锯齿的一像素后取整
+     */
+    private void setOutsetBounds(Rect out, float left, float top, float right, float bottom) {
+        float outset = Math.max(style.paintSize / 2, DOT_RADIUS) + 1;
+        out.set((int) Math.floor(left - outset), (int) Math.floor(top - outset),
+                (int) Math.ceil(right + outset), (int) Math.ceil(bottom + outset));
+    }
+
+    /**
+     * 绘制不随数据和标题变化的网格：背景、边框、连接线
+     */
+    void drawWeb(Canvas canvas) {
+        long begin = metrics.begin();
+        drawBackground(canvas);
+        metrics.end(DistributionMetrics.PHASE_FLOORS, begin);
+        if (style.isShowLine) {
+            begin = metrics.begin();
+            drawGrid(canvas);
+            metrics.end(DistributionMetrics.PHASE_BORDERS, begin);
+        }
+        if (style.isShowConnect) {
+            begin = metrics.begin();
+            drawSpokes(canvas);
+            metrics.end(DistributionMetrics.PHASE_SPOKES, begin);
+        }
+    }
+
+    /**
+     * 绘制各属性标题
+     */
+    void drawTitles(Canvas canvas, TitleLayout titleLayout) {
+        long begin = metrics.begin();
+        titleLayout.draw(canvas, textPaint, layout);
+        metrics.end(DistributionMetrics.PHASE_TEXT, begin);
+    }
+
+    /**
+     * 绘制覆盖区域：填充、连接线、边框线和圆点
+     */
+    void drawArea(Canvas canvas, Path areaPath, float[] areaPoints) {
+        canvas.drawPath(areaPath, areaFillPaint);
+        if (style.isShowConnect) {
+            drawAreaConnects(canvas, areaPoints);
+        }
+        canvas.drawPath(areaPath, areaStrokePaint);
+        drawMarkers(canvas, areaPoints);
+    }
+
+    /**
+     * 背景：两组不重叠的环形色带各一次填充，每个像素只绘制一次
+     * 最外层为 bgColor2 时层数为奇数，与由外向内逐层覆盖的配色一致
+     */
+    private void drawBackground(Canvas canvas) {
+        boolean outerIsBg = layout.key.floorCount % 2 == 0;
+        canvas.drawPath(layout.bandPath, outerIsBg ? floorPaint : floorPaint2);
+        canvas.drawPath(layout.bandPath2, outerIsBg ? floorPaint2 : floorPaint);
+    }
+
+    /**
+     * 边框：所有层合并为一次绘制
+     */
+    private void drawGrid(Canvas canvas) {
+        if (layout.dense) {
+            canvas.drawLines(layout.ringLines, gridPaint);
+        } else {
+            canvas.drawPath(layout.borderPath, gridPaint);
+        }
+    }
+
+    /**
+     * 连接线：一次绘制
+     */
+    private void drawSpokes(Canvas canvas) {
+        if (layout.dense) {
+            canvas.drawLines(layout.spokeLines, spokePaint);
+        } else {
+            canvas.drawPath(layout.connectPath, spokePaint);
+        }
+    }
+
+    /**
+     * 覆盖区域连接线：一次 drawLines，高密度模式下按连接线间隔抽稀
+     */
+    private void drawAreaConnects(Canvas canvas, float[] areaPoints) {
+        int angleCount = layout.key.angleCount;
+        int step = layout.spokeStep;
+        ensureLineBuffer((angleCount + step - 1) / step * 4);
+        int n = 0;
+        for (int i = 0; i < angleCount; i += step) {
+            lineBuffer[n++] = layout.centerX;
+            lineBuffer[n++] = layout.centerY;
+            lineBuffer[n++] = areaPoints[i * 2];
+            lineBuffer[n++] = areaPoints[i * 2 + 1];
+        }
+        canvas.drawLines(lineBuffer, 0, n, areaConnectPaint);
+    }
+
+    /**
+     * 圆点：一次 drawPoints，高密度模式下按连接线间隔抽稀
+     */
+    private void drawMarkers(Canvas canvas, float[] areaPoints) {
+        int angleCount = layout.key.angleCount;
+        int step = layout.spokeStep;
+        if (step == 1) {
+            canvas.drawPoints(areaPoints, 0, angleCount * 2, markerPaint);
+            return;
+        }
+        ensureLineBuffer((angleCount + step - 1) / step * 2);
+        int n = 0;
+        for (int i = 0; i < angleCount; i += step) {
+            lineBuffer[n++] = areaPoints[i * 2];
+            lineBuffer[n++] = areaPoints[i * 2 + 1];
+        }
+        canvas.drawPoints(lineBuffer, 0, n, markerPaint);
+    }
+
+    private void ensureLineBuffer(int size) {
+        if (lineBuffer.length < size) {
+            lineBuffer = new float[size];
+            metrics.allocation();
+        }
+    }
+
+    /**
+     * 按顶点数组连接成闭合多边形，跳过与上一个顶点相距不足一个像素的顶点
+     */
+    static void addSimplifiedPolygon(Path path, float[] points, int count) {
+        float lastX = points[0];
+        float lastY = points[1];
+        path.moveTo(lastX, lastY);
+        for (int i = 1; i < count; i++) {
+            float x = points[i * 2];
+            float y = points[i * 2 + 1];
+            if (Math.abs(x - lastX) < 1 && Math.abs(y - lastY) < 1) {
+                continue;
+            }
+            path.lineTo(x, y);
+            lastX = x;
+            lastY = y;
+        }
+        path.close();
+    }
+
+    /**
+     * 按顶点数组连接成闭合多边形
+     */
+    static void addPolygon(Path path, float[] points, int count) {
+        path.moveTo(points[0], points[1]);
+        for (int i = 1; i < count; i++) {
+            path.lineTo(points[i * 2], points[i * 2 + 1]);
+        }
+        path.close();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.distributionview;
+
+import android.graphics.Typeface;
+
+import com.example.distributionview.core.ScaleMath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一张属性分布图的完整描述：尺寸、标题、比例和样式
+ * 不依赖 View，交给 {@link DistributionExporter} 在任意线程绘制
+ */
+public final class DistributionSpec {
+    //图片宽高（px）
+    int width = 250;
+    int height = 250;
+    //属性标题列表
+    List<String> titles = new ArrayList<>();
+    //各属性比例（0~1）
+    float[] scales = new float[0];
+    //样式
+    final DistributionStyle style;
+
+    public DistributionSpec() {
+        this(new DistributionStyle());
+    }
+
+    private DistributionSpec(DistributionStyle style) {
+        this.style = style;
+    }
+
+    /**
+     * 设置图片宽高（px）
+     *
+     * @throws IllegalArgumentException 宽或高不大于0
+     */
+    public DistributionSpec setSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width=" + width + ", height=" + height);
+        }
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * 设置元素标题（不得少于元素个数）
+     */
+    public DistributionSpec setTitles(List<String> titles) {
+        this.titles = new ArrayList<>(titles);
+        return this;
+    }
+
+    /**
+     * 设置各元素对应比例（不得少于元素个数，大于1按1处理）
+     */
+    public DistributionSpec setScales(float[] scales) {
+        this.scales = new float[scales.length];
+        for (int i = 0; i < scales.length; i++) {
+            this.scales[i] = ScaleMath.clamp(scales[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 设置层数
+     */
+    public DistributionSpec setFloorCount(int floorCount) {
+        style.floorCount = floorCount;
+        return this;
+    }
+
+    /**
+     * 设置属性个数
+     */
+    public DistributionSpec setAngleCount(int angleCount) {
+        style.angleCount = angleCount;
+        return this;
+    }
+
+    /**
+     * 设置覆盖区域的填充色和边框色
+     */
+    public DistributionSpec setAreaColor(int areaColor, int areaLineColor) {
+        style.areaColor = areaColor;
+        style.areaLineColor = areaLineColor;
+        return this;
+    }
+
+    /**
+     * 设置各层背景的两种间隔颜色
+     */
+    public DistributionSpec setBgColor(int bgColor, int bgColor2) {
+        style.bgColor = bgColor;
+        style.bgColor2 = bgColor2;
+        return this;
+    }
+
+    /**
+     * 设置边框颜色与线宽（px）
+     */
+    public DistributionSpec setLine(int lineColor, float lineSize) {
+        style.lineColor = lineColor;
+        style.paintSize = lineSize;
+        return this;
+    }
+
+    /**
+     * 设置标题颜色与大小（px）
+     */
+    public DistributionSpec setText(int textColor, float textSize) {
+        style.textColor = textColor;
+        style.textSize = textSize;
+        return this;
+    }
+
+    /**
+     * 设置标题字体
+     */
+    public DistributionSpec setTypeface(Typeface typeface) {
+        style.typeface = typeface;
+        return this;
+    }
+
+    /**
+     * 设置是否显示连接线
+     */
+    public DistributionSpec setIsShowConnect(boolean isShow) {
+        style.isShowConnect = isShow;
+        return this;
+    }
+
+    /**
+     * 设置是否显示边框
+     */
+    public DistributionSpec setIsShowLine(boolean isShow) {
+        style.isShowLine = isShow;
+        return this;
+    }
+
+    /**
+     * 复制一份，提交到后台绘制后调用方仍可继续修改原对象
+     */
+    DistributionSpec copy() {
+        DistributionSpec spec = new DistributionSpec(style.copy());
+        spec.width = width;
+        spec.height = height;
+        spec.titles = new ArrayList<>(titles);
+        spec.scales = scales.clone();
+        return spec;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.distributionview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 属性分布图样式（颜色、线宽、文本、层数、边数等）
+ * 由 DistributionView、DistributionGridView 共用同一套 xml 属性
+ */
+final class DistributionStyle {
+    //已解析的 xml 样式，按主题分组，同一主题下以 style 属性和直接写在 xml 中的属性值为键
+    private static final Map<Resources.Theme, ResolvedGroup> RESOLVED = new WeakHashMap<>();
+
+    /**
+     * 同一主题下已解析的样式，配置（夜间模式、密度、字体缩放、语言等）变化后整组丢弃
+     */
+    private static final class ResolvedGroup {
+        //解析时的配置副本
+        final Configuration configuration;
+        final Map<String, DistributionStyle> styles = new HashMap<>();
+
+        ResolvedGroup(Configuration configuration) {
+            this.configuration = new Configuration(configuration);
+        }
+    }
+
+    //多边形层数
+    int floorCount = 3;
+    //多边形边数（属性个数）
+    int angleCount = 3;
+    //覆盖区域颜色
+    int areaColor = Color.parseColor("#B300D19F");
+    //覆盖区域颜色
+    int areaLineColor = Color.parseColor("#FF00D19F");
+    //覆盖区域连接线颜色
+    int areaConnectLineColor = Color.parseColor("#6FE4C8");
+    //连接线颜色
+    int connectLineColor = Color.parseColor("#80FCFCFC");
+    //背景颜色
+    int bgColor = Color.parseColor("#FAFAFA");
+    //背景颜色2
+    int bgColor2 = Color.parseColor("#F8F8F8");
+    //边框与连线颜色
+    int lineColor = Color.parseColor("#F3F3F3");
+    //属性文本颜色
+    int textColor = Color.parseColor("#000000");
+    //默认文本与边框距离
+    float defaultTextPadding = 20f;
+    //属性文本大小（px）
+    float textSize = 20f;
+    //属性文本最大宽度（px），超出时省略结尾；0表示不超过图形尺寸的四分之一
+    float textMaxWidth = 0f;
+    //属性文本字体，为null时使用默认字体
+    Typeface typeface = null;
+    //是否显示各层连线 默认显示
+    boolean isShowConnect = true;
+    //是否显示边框 默认显示
+    boolean isShowLine = true;
+    //画笔粗细
+    float paintSize = 2f;
+    //是否缓存静态图层（背景、边框、连接线、文本） 默认不缓存
+    boolean isCacheStaticLayer = false;
+
+    /**
+     * 尺寸为size的图形中，单个标题允许的最大宽度
+     */
+    float titleLimitWidth(float size) {
+        return textMaxWidth > 0 ? textMaxWidth : size / 4;
+    }
+
+    /**
+     * 复制一份样式，供其他线程或其他控件独立使用
+     */
+    DistributionStyle copy() {
+        DistributionStyle style = new DistributionStyle();
+        style.floorCount = floorCount;
+        style.angleCount = angleCount;
+        style.areaColor = areaColor;
+        style.areaLineColor = areaLineColor;
+        style.areaConnectLineColor = areaConnectLineColor;
+        style.connectLineColor = connectLineColor;
+        style.bgColor = bgColor;
+        style.bgColor2 = bgColor2;
+        style.lineColor = lineColor;
+        style.textColor = textColor;
+        style.defaultTextPadding = defaultTextPadding;
+        style.textSize = textSize;
+        style.textMaxWidth = textMaxWidth;
+        style.typeface = typeface;
+        style.isShowConnect = isShowConnect;
+        style.isShowLine = isShowLine;
+        style.paintSize = paintSize;
+        style.isCacheStaticLayer = isCacheStaticLayer;
+        return style;
+    }
+
+    /**
+     * 从 xml 属性读取样式，未设置的属性使用默认值
+     * 同一主题、同一配置下 style 和属性值都相同的控件（如同一布局重复加载）只解析一次，之后复制已解析的结果
+     * 主题不变而配置变化时（如自行处理配置变化的 Activity 切换夜间模式），资源值可能不同，重新解析
+     */
+    static DistributionStyle obtain(Context context, AttributeSet attributeSet) {
+        Resources.Theme theme = context.getTheme();
+        if (theme == null) {
+            return parse(context, attributeSet);
+        }
+        Configuration configuration = context.getResources().getConfiguration();
+        String key = resolvedKey(attributeSet);
+        synchronized (RESOLVED) {
+            ResolvedGroup group = RESOLVED.get(theme);
+            if (group == null || !group.configuration.equals(configuration)) {
+                group = new ResolvedGroup(configuration);
+                RESOLVED.put(theme, group);
+            }
+            DistributionStyle resolved = group.styles.get(key);
+            if (resolved == null) {
+                resolved = parse(context, attributeSet);
+                group.styles.put(key, resolved);
+            }
+            return resolved.copy();
+        }
+    }
+
+    /**
+     * 缓存键：style 属性加上直接设置的本控件属性（资源id与原始值），主题引用的值随主题区分
+     */
+    private static String resolvedKey(AttributeSet attributeSet) {
+        if (attributeSet == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder().append(attributeSet.getStyleAttribute());
+        for (int i = 0; i < attributeSet.getAttributeCount(); i++) {
+            int nameResource = attributeSet.getAttributeNameResource(i);
+            for (int attr : R.styleable.DistributionView) {
+                if (attr == nameResource) {
+                    key.append(';').append(nameResource).append('=').append(attributeSet.getAttributeValue(i));
+                    break;
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private static DistributionStyle parse(Context context, AttributeSet attributeSet) {
+        DistributionStyle style = new DistributionStyle();
+        TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.DistributionView);
+        if (typedArray != null) {
+            //线条颜色
+            style.lineColor = typedArray.getColor(R.styleable.DistributionView_line_color, style.lineColor);
+            //线条宽度
+            style.paintSize = typedArray.getDimension(R.styleable.DistributionView_line_size, style.paintSize);
+            //绘制层数（不得小于各元素分配的比例）
+            style.floorCount = typedArray.getInt(R.styleable.DistributionView_floor_count, style.floorCount);
+            //绘制元素个数
+            style.angleCount = typedArray.getInt(R.styleable.DistributionView_angle_count, style.angleCount);
+            //文本颜色
+            style.textColor = typedArray.getColor(R.styleable.DistributionView_text_color, style.textColor);
+            //文本大小
+            style.textSize = typedArray.getDimension(R.styleable.DistributionView_text_size, style.textSize);
+            //覆盖区域颜色
+            style.areaColor = typedArray.getColor(R.styleable.DistributionView_area_color, style.areaColor);
+            //覆盖区域边框颜色
+            style.areaLineColor = typedArray.getColor(R.styleable.DistributionView_area_line_color, style.areaLineColor);
+            //覆盖区域连接线颜色
+            style.areaConnectLineColor = typedArray.getColor(R.styleable.DistributionView_area_connect_line_color, style.areaConnectLineColor);
+            //链接线颜色
+            style.connectLineColor = typedArray.getColor(R.styleable.DistributionView_connect_line_color, style.connectLineColor);
+            //背景颜色
+            style.bgColor = typedArray.getColor(R.styleable.DistributionView_bg_color, style.bgColor);
+            //背景颜色2
+            style.bgColor2 = typedArray.getColor(R.styleable.DistributionView_bg_color2, style.bgColor2);
+            //文本最大宽度
+            style.textMaxWidth = typedArray.getDimension(R.styleable.DistributionView_text_max_width, style.textMaxWidth);
+            //默认文本与图形间距
+            style.defaultTextPadding = typedArray.getDimension(R.styleable.DistributionView_default_text_padding, style.defaultTextPadding);
+            //是否缓存静态图层
+            style.isCacheStaticLayer = typedArray.getBoolean(R.styleable.DistributionView_cache_static_layer, style.isCacheStaticLayer);
+            typedArray.recycle();
+        }
+        return style;
+    }
+}
@@ -1,61 +1,146 @@
 package com.example.distributionview;
 
+import android.animation.TimeInterpolator;
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.Typeface;
 import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 
-import java.util.ArrayList;
+import com.example.distributionview.core.DataPointIndex;
+import com.example.distributionview.core.ScaleAggregator;
+import com.example.distributionview.core.ScaleMath;
+
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Created by Jackie on 2023/6/17
- * 自定义属性分布图，目前只实现三角形的
+ * 自定义属性分布图，支持任意边数（不少于3）的正多边形
  */
 public class DistributionView extends View {
-    private Paint paint = new Paint();
-    //多边形层数
-    private int floorCount = 3;
-    //多边形边数（属性个数）
-    private int angleCount = 3;
-    //标题文本长度
-    private int textLength = 2;
+    //标题需要重新度量
+    private static final int DIRTY_TEXT = 1;
+    //静态图形（尺寸、层数、边数、文本预留空间）需要重新构建
+    private static final int DIRTY_GEOMETRY = 1 << 1;
+    //静态图层的颜色或显示开关变化，只需重新录制
+    private static final int DIRTY_STYLE = 1 << 2;
+    //覆盖区域需要重新构建
+    private static final int DIRTY_DATA = 1 << 3;
+    //叠加数据需要重新构建
+    private static final int DIRTY_SERIES = 1 << 4;
+    //覆盖区域顶点已更新，只需重新生成路径
+    private static final int DIRTY_AREA_PATH = 1 << 5;
+
+    /**
+     * 图形触摸回调，每个触摸事件都会回调，查找只用到预先计算的图形，开销与边数无关且不分配内存
+     */
+    public interface OnChartTouchListener {
+        /**
+         * @param axis      触摸方向所在的属性下标，超出最外层外接圆时为-1
+         * @param floor     所在层（0为最内层），在图形之外时为-1
+         * @param dataPoint 命中的覆盖区域顶点下标，没有命中时为-1
+         * @return 是否消费该事件
+         */
+        boolean onChartTouch(DistributionView view, MotionEvent event, int axis, int floor, int dataPoint);
+    }
+
+    //样式
+    private final DistributionStyle style;
+    //绘制逻辑与静态图形
+    private final DistributionRenderer renderer;
     //属性标题列表
-    private List<String> titles = new ArrayList<>();
-    //各属性分布层数，不大于总层数
-    private List<Float> scaleList = new ArrayList<>();
-    //覆盖区域颜色
-    private int areaColor = Color.parseColor("#B300D19F");
-    //覆盖区域颜色
-    private int areaLineColor = Color.parseColor("#FF00D19F");
-    //覆盖区域连接线颜色
-    private int areaConnectLineColor = Color.parseColor("#6FE4C8");
-    //连接线颜色
-    private int connectLineColor = Color.parseColor("#80FCFCFC");
-    //背景颜色
-    private int bgColor = Color.parseColor("#FAFAFA");
-    //背景颜色2
-    private int bgColor2 = Color.parseColor("#F8F8F8");
-    //边框与连线颜色
-    private int lineColor = Color.parseColor("#F3F3F3");
-    //属性文本颜色
-    private int textColor = Color.parseColor("#000000");
-    //默认文本与边框距离
-    private float defaultTextPadding = 20f;
-    //属性文本大小（px）
-    private float textSize = 20f;
-    //是否显示各层连线 默认显示
-    private boolean isShowConnect = true;
-    //是否显示边框 默认显示
-    private boolean isShowLine = true;
-    //画笔粗细
-    private float paintSize = 2f;
-    private int mWidth = 0;
-    private int mHeight = 0;
+    private List<String> titles = Collections.emptyList();
+    //标题度量与排版结果，标题不足时为null
+    private TitleLayout titleLayout;
+    //各属性比例（0~1），由控件持有并复用，不引用调用方的数据
+    private float[] scales = new float[0];
+    //有效比例个数
+    private int scaleCount = 0;
+    //其他线程投递的比例数据
+    private final ScaleMailbox scaleMailbox = new ScaleMailbox();
+    //UI线程的 Choreographer，在UI线程第一次使用或添加到窗口时取得，不在构造时绑定（控件可能在后台线程加载）
+    private volatile Choreographer choreographer;
+    //每帧最多应用一次投递的比例数据
+    private final Choreographer.FrameCallback applyPostedScales = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            ScaleMailbox.Frame frame = scaleMailbox.take();
+            if (frame == null) {
+                return;
+            }
+            setScales(frame.values, 0, frame.count);
+            scaleMailbox.recycle(frame);
+        }
+    };
+    //叠加显示的多组数据
+    private final SeriesLayer seriesLayer = new SeriesLayer();
+    //比例数据动画
+    private final ScaleAnimator scaleAnimator = new ScaleAnimator();
+    //最近一帧动画插值耗时（纳秒）
+    private long animationFrameNanos = 0;
+    private final Choreographer.FrameCallback animationFrame = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            long begin = System.nanoTime();
+            ensureScaleCapacity(scaleAnimator.getCount());
+            boolean running = scaleAnimator.step(frameTimeNanos, scales);
+            scaleCount = scaleAnimator.getCount();
+            animationFrameNanos = System.nanoTime() - begin;
+            markDataDirty();
+            if (running) {
+                choreographer().postFrameCallback(this);
+            }
+        }
+    };
+    //静态图层缓存
+    private final StaticLayer staticLayer = new StaticLayer();
+    //覆盖区域路径
+    private final Path areaPath = new Path();
+    //覆盖区域各顶点
+    private float[] areaPoints = new float[0];
+    //静态图形是否已构建
+    private boolean layoutReady = false;
+    //覆盖区域是否已构建
+    private boolean areaReady = false;
+    //覆盖区域顶点的触摸查找索引，顶点变化后在下一次查找时重建
+    private final DataPointIndex dataPointIndex = new DataPointIndex();
+    private boolean dataPointIndexDirty = true;
+    //当前覆盖区域的绘制范围
+    private final Rect areaBounds = new Rect();
+    //上一次绘制的覆盖区域范围
+    private final Rect drawnAreaBounds = new Rect();
+    //局部重绘区域，复用
+    private final Rect damageBounds = new Rect();
+    private final Rect axisBounds = new Rect();
+    //图形触摸回调
+    private OnChartTouchListener onChartTouchListener;
+    //绘制耗时统计，默认关闭
+    private final RenderMetrics metrics = new RenderMetrics();
+    //命中覆盖区域顶点的最大距离
+    private final float touchSlop;
+    //是否在后台线程准备静态图形，默认关闭
+    private boolean asyncLayout = false;
+    //后台准备静态图形，结果在UI线程整体替换
+    private final LayoutPreparer layoutPreparer = new LayoutPreparer(this, new LayoutPreparer.Callback() {
+        @Override
+        public void onPrepared(LayoutPreparer.Model model) {
+            applyPreparedLayout(model);
+        }
+    });
+    //待处理的变化，在下一次绘制前统一处理，多次设置只重建一次
+    private int dirtyFlags = DIRTY_TEXT | DIRTY_GEOMETRY;
+    //构建静态图形时的内边距，内边距变化（setPadding、背景等）时需要重建
+    private int layoutPaddingLeft;
+    private int layoutPaddingTop;
+    private int layoutPaddingRight;
+    private int layoutPaddingBottom;
 
     public DistributionView(Context context) {
         this(context, null);
@@ -68,52 +153,12 @@ public class DistributionView extends View {
     public DistributionView(Context context, AttributeSet attributeSet, int defStyleAttr) {
         super(context, attributeSet, defStyleAttr);
 
-        TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.DistributionView);
-        if (typedArray != null) {
-            //线条颜色
-            lineColor = typedArray.getColor(R.styleable.DistributionView_line_color, lineColor);
-            //线条宽度
-            paintSize = typedArray.getDimension(R.styleable.DistributionView_line_size, paintSize);
-            //绘制层数（不得小于各元素分配的比例）
-            floorCount = typedArray.getInt(R.styleable.DistributionView_floor_count, floorCount);
-            //绘制元素个数
-            angleCount = typedArray.getInt(R.styleable.DistributionView_angle_count, angleCount);
-            //文本颜色
-            textColor = typedArray.getColor(R.styleable.DistributionView_text_color, textColor);
-            //文本大小
-            textSize = typedArray.getDimension(R.styleable.DistributionView_text_size, textSize);
-            //覆盖区域颜色
-            areaColor = typedArray.getColor(R.styleable.DistributionView_area_color, areaColor);
-            //覆盖区域边框颜色
-            areaLineColor = typedArray.getColor(R.styleable.DistributionView_area_line_color, areaLineColor);
-            //覆盖区域连接线颜色
-            areaConnectLineColor = typedArray.getColor(R.styleable.DistributionView_area_connect_line_color, areaConnectLineColor);
-            //链接线颜色
-            connectLineColor = typedArray.getColor(R.styleable.DistributionView_connect_line_color, connectLineColor);
-            //背景颜色
-            bgColor = typedArray.getColor(R.styleable.DistributionView_bg_color, bgColor);
-            //背景颜色2
-            bgColor2 = typedArray.getColor(R.styleable.DistributionView_bg_color2, bgColor2);
-            //默认文本与图形间距
-            defaultTextPadding = typedArray.getDimension(R.styleable.DistributionView_default_text_padding, defaultTextPadding);
-        }
-        typedArray.recycle();
-        paint.setAntiAlias(true);
-
-        //示例数据设置
-        List<String> titleList = new ArrayList<>();
-        titleList.add("数据1");
-        titleList.add("数据2");
-        titleList.add("数据3");
-        setTitle(titleList);
-
-        List<Float> scaleList1 = new ArrayList<>();
-        scaleList1.add(0.5f);
-        scaleList1.add(0.1f);
-        scaleList1.add(1f);
-        setScaleList(scaleList1);
-        setIsShowConnect(true);
-        setIsShowLine(true);
+        style = DistributionStyle.obtain(context, attributeSet);
+        renderer = new DistributionRenderer(style);
+        seriesLayer.setStroke(style.paintSize, DistributionRenderer.DOT_RADIUS);
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        renderer.setMetrics(metrics);
+        staticLayer.setMetrics(metrics);
     }
 
     /**
@@ -121,34 +166,360 @@ public class DistributionView extends View {
      */
     public DistributionView setTitle(List<String> titles) {
         this.titles = titles;
+        markDirty(DIRTY_TEXT);
+        return this;
+    }
+
+    /**
+     * 设置标题字体
+     */
+    public DistributionView setTypeface(Typeface typeface) {
+        style.typeface = typeface;
+        renderer.applyStyle();
+        markDirty(DIRTY_TEXT);
         return this;
     }
 
 
     /**
-     * 设置各元素对应比例（不得少于元素个数，不得低于层数）
+     * 设置各元素对应比例（不得少于元素个数，大于1按1处理）
+     * 数据会复制到控件内部，不会修改传入的列表
      */
     public DistributionView setScaleList(List<Float> list) {
-        if (list == null || list.size() < angleCount) {
+        if (list == null || list.size() < style.angleCount) {
             return this;
         }
-        for (int i = 0; i < list.size(); i++) {
-            float f = list.get(i);
-            if (f > 1) {
-                list.set(i, (float) floorCount);
-                continue;
+        cancelAnimation();
+        int count = list.size();
+        ensureScaleCapacity(count);
+        for (int i = 0; i < count; i++) {
+            scales[i] = ScaleMath.clamp(list.get(i));
+        }
+        scaleCount = count;
+        markDataDirty();
+        return this;
+    }
+
+
+    /**
+     * 设置各元素对应比例（0~1，大于1按1处理）
+     */
+    public DistributionView setScales(float[] values) {
+        return setScales(values, 0, values.length);
+    }
+
+
+    /**
+     * 设置各元素对应比例，从values[offset]开始取count个
+     * 数据会复制到控件内部可复用的缓冲区，调用方之后修改数组不会影响控件
+     */
+    public DistributionView setScales(float[] values, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > values.length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", count=" + count + ", length=" + values.length);
+        }
+        cancelAnimation();
+        ensureScaleCapacity(count);
+        for (int i = 0; i < count; i++) {
+            scales[i] = ScaleMath.clamp(values[offset + i]);
+        }
+        scaleCount = count;
+        markDataDirty();
+        return this;
+    }
+
+    /**
+     * 只修改第axis个元素的比例（0~1，大于1按1处理），开销与元素个数无关
+     * 只更新覆盖区域的对应顶点，并重绘该顶点和相邻两条边所在的范围
+     */
+    public DistributionView setScale(int axis, float value) {
+        checkAxis(axis);
+        cancelAnimation();
+        boolean incremental = beginAxisUpdate(axis);
+        damageBounds.setEmpty();
+        scales[axis] = ScaleMath.clamp(value);
+        if (incremental) {
+            updateAxis(axis);
+            endAxisUpdate();
+        } else {
+            markDataDirty();
+        }
+        return this;
+    }
+
+
+    /**
+     * 批量修改部分元素的比例，values[i]对应第axes[i]个元素
+     * 开销只与修改的个数有关
+     */
+    public DistributionView setScales(int[] axes, float[] values) {
+        if (axes.length != values.length) {
+            throw new IllegalArgumentException("axes.length=" + axes.length + ", values.length=" + values.length);
+        }
+        for (int axis : axes) {
+            checkAxis(axis);
+        }
+        cancelAnimation();
+        boolean incremental = true;
+        for (int axis : axes) {
+            incremental &= beginAxisUpdate(axis);
+        }
+        damageBounds.setEmpty();
+        for (int i = 0; i < axes.length; i++) {
+            scales[axes[i]] = ScaleMath.clamp(values[i]);
+            if (incremental) {
+                updateAxis(axes[i]);
             }
-            list.set(i, f * floorCount);
         }
-        this.scaleList = list;
+        if (incremental) {
+            endAxisUpdate();
+        } else {
+            markDataDirty();
+        }
+        return this;
+    }
+
+    /**
+     * 添加一组叠加显示的数据（0~1），id已存在时替换数据和颜色
+     * 所有数据共用同一张背景网格，同色的数据合并为一次绘制
+     */
+    public DistributionView addSeries(int id, float[] values, int areaColor, int areaLineColor) {
+        seriesLayer.put(id, values, 0, values.length, areaColor, areaLineColor);
+        markDirty(DIRTY_SERIES);
+        return this;
+    }
+
+
+    /**
+     * 更新一组叠加数据的比例，id不存在时忽略
+     */
+    public DistributionView updateSeries(int id, float[] values) {
+        if (seriesLayer.update(id, values, 0, values.length)) {
+            markDirty(DIRTY_SERIES);
+        }
+        return this;
+    }
+
+
+    /**
+     * 移除一组叠加数据
+     */
+    public DistributionView removeSeries(int id) {
+        if (seriesLayer.remove(id)) {
+            markDirty(DIRTY_SERIES);
+        }
         return this;
     }
 
+
+    /**
+     * 移除所有叠加数据
+     */
+    public DistributionView clearSeries() {
+        if (seriesLayer.size() > 0) {
+            seriesLayer.clear();
+            markDirty(DIRTY_SERIES);
+        }
+        return this;
+    }
+
+    /**
+     * 以动画方式过渡到目标比例（0~1）
+     * 从当前显示的比例开始逐帧插值，动画进行中再次调用会从当前位置转向新的目标
+     *
+     * @param interpolator 时间插值器，为null时线性变化
+     */
+    public DistributionView animateTo(float[] target, long durationMs, TimeInterpolator interpolator) {
+        if (durationMs <= 0) {
+            return setScales(target);
+        }
+        boolean isRunning = scaleAnimator.isRunning();
+        scaleAnimator.start(scales, scaleCount, target, 0, target.length, durationMs, interpolator);
+        if (!isRunning) {
+            choreographer().postFrameCallback(animationFrame);
+        }
+        return this;
+    }
+
+
+    /**
+     * 取消正在进行的动画，停留在当前显示的比例
+     */
+    public void cancelAnimation() {
+        if (scaleAnimator.isRunning()) {
+            scaleAnimator.cancel();
+            choreographer().removeFrameCallback(animationFrame);
+        }
+    }
+
+
+    /**
+     * 是否正在执行比例动画
+     */
+    public boolean isAnimating() {
+        return scaleAnimator.isRunning();
+    }
+
+
+    /**
+     * 最近一帧动画插值的耗时（纳秒），可用于确认没有超出帧预算
+     */
+    public long getAnimationFrameNanos() {
+        return animationFrameNanos;
+    }
+
+    /**
+     * 从任意线程投递各元素对应比例
+     * 只保留最新的一组，在下一帧由UI线程应用并重绘，同一帧内的多次投递合并为一次
+     */
+    public void postScales(float[] values) {
+        postScales(values, 0, values.length);
+    }
+
+
+    /**
+     * 从任意线程投递各元素对应比例，从values[offset]开始取count个
+     * 数据在调用时复制，调用返回后即可复用values
+     */
+    public void postScales(float[] values, int offset, int count) {
+        if (scaleMailbox.post(values, offset, count)) {
+            schedulePostedScales();
+        }
+    }
+
+
+    /**
+     * 从任意线程投递聚合器当前的统计结果（各属性比例），与{@link #postScales(float[])}一样每帧最多应用一次
+     * 换算耗时只与属性个数有关，高频样本流可以一直写入聚合器，按需要的刷新频率调用本方法
+     */
+    public void postScales(ScaleAggregator aggregator) {
+        if (scaleMailbox.post(aggregator)) {
+            schedulePostedScales();
+        }
+    }
+
+    /**
+     * 调度应用投递数据的帧回调，可在任意线程调用
+     * 还没有添加到窗口时不调度，由 {@link #onAttachedToWindow()} 补上
+     */
+    private void schedulePostedScales() {
+        Choreographer current = choreographer;
+        if (current != null) {
+            current.postFrameCallback(applyPostedScales);
+        }
+    }
+
+    /**
+     * UI线程的 Choreographer，只在UI线程调用
+     */
+    private Choreographer choreographer() {
+        Choreographer current = choreographer;
+        if (current == null) {
+            current = Choreographer.getInstance();
+            choreographer = current;
+        }
+        return current;
+    }
+
+
+    /**
+     * 通过{@link #postScales(float[])}投递的总次数
+     */
+    public long getPostedScaleCount() {
+        return scaleMailbox.getPostedCount();
+    }
+
+
+    /**
+     * 投递后在下一帧之前被更新数据覆盖、没有显示的次数
+     */
+    public long getCoalescedScaleCount() {
+        return scaleMailbox.getCoalescedCount();
+    }
+
+
+    /**
+     * UI线程实际应用投递数据的次数（不超过帧数）
+     */
+    public long getAppliedScaleCount() {
+        return scaleMailbox.getAppliedCount();
+    }
+
+    private void checkAxis(int axis) {
+        if (axis < 0 || axis >= Math.max(scaleCount, style.angleCount)) {
+            throw new IndexOutOfBoundsException("axis=" + axis + ", count=" + Math.max(scaleCount, style.angleCount));
+        }
+    }
+
+    /**
+     * 准备修改第axis个比例，比例个数不足时补0
+     *
+     * @return 能否只更新单个顶点：覆盖区域已构建、没有其他待处理的变化、且比例个数不变
+     */
+    private boolean beginAxisUpdate(int axis) {
+        if (axis < scaleCount) {
+            return areaReady && (dirtyFlags & ~DIRTY_AREA_PATH) == 0;
+        }
+        ensureScaleCapacity(axis + 1);
+        for (int i = scaleCount; i <= axis; i++) {
+            scales[i] = 0f;
+        }
+        scaleCount = axis + 1;
+        return false;
+    }
+
+    /**
+     * 按新比例更新第axis个顶点，累计新旧两侧的重绘范围
+     */
+    private void updateAxis(int axis) {
+        if (axis >= renderer.getLayout().key.angleCount) {
+            return;
+        }
+        renderer.axisBounds(areaPoints, axis, axisBounds);
+        damageBounds.union(axisBounds);
+        renderer.updateAreaPoint(scales, axis, areaPoints);
+        dataPointIndexDirty = true;
+        renderer.axisBounds(areaPoints, axis, axisBounds);
+        damageBounds.union(axisBounds);
+    }
+
+    /**
+     * 重绘累计的范围，路径推迟到绘制前生成
+     * 覆盖区域范围只扩大不收缩，下次整体重建时再精确计算
+     * 重绘范围只对软件绘制有效，硬件加速时见 {@link #markDataDirty()}
+     */
+    private void endAxisUpdate() {
+        dirtyFlags |= DIRTY_AREA_PATH;
+        areaBounds.union(damageBounds);
+        if (!damageBounds.isEmpty()) {
+            invalidate(damageBounds);
+        }
+    }
+
+    /**
+     * 扩容时保留已有的比例，单个修改扩容后之前的元素不变
+     */
+    private void ensureScaleCapacity(int count) {
+        if (scales.length < count) {
+            scales = Arrays.copyOf(scales, count);
+            metrics.allocation();
+        }
+    }
+
+    /**
+     * 第axis个元素当前的比例
+     */
+    float getScale(int axis) {
+        return scales[axis];
+    }
+
     /**
      * 设置层数
      */
     public DistributionView setFloorCount(int floorCount) {
-        this.floorCount = floorCount;
+        if (style.floorCount != floorCount) {
+            style.floorCount = floorCount;
+            markDirty(DIRTY_GEOMETRY);
+        }
         return this;
     }
 
@@ -157,7 +528,10 @@ public class DistributionView extends View {
      * 设置属性个数
      */
     public DistributionView setAngleCount(int angleCount) {
-        this.angleCount = angleCount;
+        if (style.angleCount != angleCount) {
+            style.angleCount = angleCount;
+            markDirty(DIRTY_TEXT | DIRTY_GEOMETRY);
+        }
         return this;
     }
 
@@ -166,7 +540,10 @@ public class DistributionView extends View {
      * 设置是否显示连接线
      */
     public DistributionView setIsShowConnect(boolean isShow) {
-        this.isShowConnect = isShow;
+        if (style.isShowConnect != isShow) {
+            style.isShowConnect = isShow;
+            markDirty(DIRTY_STYLE);
+        }
         return this;
     }
 
@@ -175,15 +552,142 @@ public class DistributionView extends View {
      * 设置是否显示边框
      */
     public DistributionView setIsShowLine(boolean isShow) {
-        this.isShowLine = isShow;
+        if (style.isShowLine != isShow) {
+            style.isShowLine = isShow;
+            markDirty(DIRTY_STYLE);
+        }
         return this;
     }
 
 
-    private void init() {
-        paint.setColor(lineColor);
-        paint.setStrokeWidth(paintSize);
-        paint.setStyle(Paint.Style.STROKE);
+    /**
+     * 设置是否缓存静态图层
+     * 开启后背景、边框、连接线和文本只录制一次，比例数据变化或动画时只重绘覆盖区域
+     * 硬件加速时缓存为单独合成的 GPU 图层，软件绘制时缓存为位图，都占用与控件大小相同的像素内存
+     */
+    public DistributionView setCacheStaticLayer(boolean isCache) {
+        if (style.isCacheStaticLayer == isCache) {
+            return this;
+        }
+        style.isCacheStaticLayer = isCache;
+        if (!isCache) {
+            staticLayer.release();
+        }
+        markDirty(DIRTY_STYLE);
+        return this;
+    }
+
+    /**
+     * 设置图形触摸回调，用于点选属性、显示数值提示等
+     */
+    public DistributionView setOnChartTouchListener(OnChartTouchListener listener) {
+        this.onChartTouchListener = listener;
+        return this;
+    }
+
+
+    /**
+     * 坐标 (x, y) 所在方向的属性下标，超出最外层外接圆时返回-1
+     */
+    public int hitAxis(float x, float y) {
+        validate();
+        return layoutReady ? renderer.getLayout().shape.axisAt(x, y) : -1;
+    }
+
+
+    /**
+     * 坐标 (x, y) 所在的层（0为最内层），在图形之外时返回-1
+     */
+    public int hitFloor(float x, float y) {
+        validate();
+        return layoutReady ? renderer.getLayout().shape.floorAt(x, y) : -1;
+    }
+
+
+    /**
+     * 坐标 (x, y) 附近的覆盖区域顶点下标，没有命中时返回-1
+     */
+    public int hitDataPoint(float x, float y) {
+        validate();
+        if (!areaReady) {
+            return -1;
+        }
+        float slop = Math.max(touchSlop, DistributionRenderer.DOT_RADIUS);
+        if (dataPointIndexDirty) {
+            dataPointIndex.build(renderer.getLayout().shape, areaPoints, 0, slop);
+            dataPointIndexDirty = false;
+        }
+        return dataPointIndex.nearest(x, y, slop);
+    }
+
+    /**
+     * 开启或关闭绘制耗时统计，关闭时几乎没有额外开销
+     */
+    public DistributionView setMetricsEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+        return this;
+    }
+
+
+    public boolean isMetricsEnabled() {
+        return metrics.isEnabled();
+    }
+
+
+    /**
+     * 设置帧预算（纳秒），onDraw 超出预算时计入超时帧数，默认按60Hz计算
+     */
+    public DistributionView setFrameBudgetNanos(long frameBudgetNanos) {
+        metrics.setFrameBudgetNanos(frameBudgetNanos);
+        return this;
+    }
+
+
+    /**
+     * 当前的统计快照，可在任意线程调用，用于定期上报
+     */
+    public DistributionMetrics getMetrics() {
+        return metrics.snapshot();
+    }
+
+
+    /**
+     * 清空统计
+     */
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    /**
+     * 设置是否在后台线程准备静态图形（标题度量、各层顶点与路径、文本位置）
+     * 开启后标题、边数、层数或尺寸变化时不在绘制中重建，准备完成前继续显示之前的图形，
+     * 连续变化时只应用最后一次；首次显示会晚一帧
+     */
+    public DistributionView setAsyncLayout(boolean async) {
+        if (asyncLayout != async) {
+            asyncLayout = async;
+            if (!async && layoutPreparer.cancel()) {
+                markDirty(DIRTY_TEXT | DIRTY_GEOMETRY);
+            }
+        }
+        return this;
+    }
+
+    public boolean isAsyncLayout() {
+        return asyncLayout;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (onChartTouchListener == null) {
+            return super.onTouchEvent(event);
+        }
+        float x = event.getX();
+        float y = event.getY();
+        if (onChartTouchListener.onChartTouch(this, event, hitAxis(x, y), hitFloor(x, y), hitDataPoint(x, y))) {
+            return true;
+        }
+        return super.onTouchEvent(event);
     }
 
     @Override
@@ -206,536 +710,284 @@ public class DistributionView extends View {
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-        init();
-        mWidth = getWidth() - getPaddingLeft() - getPaddingRight();
-        mHeight = getHeight() - getPaddingBottom() - getPaddingTop();
-        mWidth = Math.min(mWidth, mHeight);
-        mHeight = mWidth;
-        for (int i = 0; i < titles.size(); i++) {
-            textLength = Math.max(titles.get(i).length(), textLength);
-        }
-        if (angleCount == 3) {
-            drawThreeAngle(canvas);
-        } else if (angleCount == 4) {
-            drawFourAngle(canvas);
-        } else if (angleCount == 5) {
-            drawFiveAngle(canvas);
-        } else if (angleCount == 6) {
-            drawSixAngle(canvas);
-        } else if (angleCount == 7) {
-            drawSevenAngle(canvas);
-        } else if (angleCount == 8) {
-            drawEightAngle(canvas);
-        }
-    }
-
-    /**
-     * 三角分布器  等边三角形
-     */
-    private void drawThreeAngle(Canvas canvas) {
-        //三角形宽度，边长
-        float ww = (float) (mWidth - defaultTextPadding * 2 - textLength * textSize);
-        //中心点各对角线的夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        //三角形高度，顶点到底边的垂直线（两个都可以)
-//        float hh = (float) (ww * Math.sin(angle / 2));
-        float hh = (float) (ww / 2 / Math.tan(angle / 2));
-        Path pathLine = new Path();
-        //中心点到各角的距离
-        float r = (float) (ww / 2 / Math.sin(angle / 2));
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        markDirty(sizeDirtyFlags());
+    }
 
-        /**
-         *                      图形中心点
-         *   各正多边形的中心点横坐标X都可以是整个控件的横向中心位置
-         *   但是由于三角形，正五边形，正七边形比较特殊
-         *   所以它们的中心点纵坐标Y并不在整个控件的中心位置
-         *   这个时候就需要根据实际情况做一下小运算
-         *   比如说三角形，首先算得三角形的宽度作为底边长
-         *   因为中心点到各角的连线夹角都是相等的
-         *   所以根据角度和边长就可算得中心点到各夹角的连线长度
-         *   然后根据这个长度就可已算出纵坐标Y的位置
-         *   之后的图形绘制都需要根据中心点和中心点到各夹角的长度来计算
-         */
-        float centerX = getWidth() / 2;
-        //图形中心点y
-        float centerY = (float) (r + getPaddingTop() + textSize + defaultTextPadding + getHeight() * 0.065);
-
-        //绘制背景颜色，可以设置间隔的颜色
-        for (int i = floorCount; i >= 1; i--) {
-            pathLine.reset();
-            float ur = r * i / floorCount;
-            pathLine.moveTo(centerX + 0f, centerY - ur);
-            pathLine.lineTo((float) (centerX + ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-            pathLine.lineTo((float) (centerX - ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-            pathLine.close();
-
-            paint.setStyle(Paint.Style.FILL);
-            if (i % 2 == 0) {
-                paint.setColor(bgColor);
-            } else {
-                paint.setColor(bgColor2);
-            }
-            canvas.drawPath(pathLine, paint);
-            canvas.save();
-        }
-
-        //绘制边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                pathLine.moveTo(centerX + 0f, centerY - ur);
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.close();
-            }
+    /**
+     * 绘制区域变化时需要的重建：未指定文本最大宽度时按尺寸限制，需要重新度量
+     */
+    private int sizeDirtyFlags() {
+        return style.textMaxWidth <= 0 ? DIRTY_TEXT | DIRTY_GEOMETRY : DIRTY_GEOMETRY;
+    }
 
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setColor(lineColor);
-            canvas.drawPath(pathLine, paint);
-            canvas.save();
-        }
-
-        //绘制连接线
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo(centerX, centerY - r);
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.close();
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setColor(connectLineColor);
-            canvas.drawPath(pathLine, paint);
-            canvas.save();
-        }
-
-        //绘制文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), centerX - textSize, centerY - r - defaultTextPadding, paint);
-        canvas.drawText(titles.get(1), centerX + ww / 2 - textSize, (float) (centerY + r * Math.cos(angle / 2) + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(2), centerX - ww / 2 - textSize, (float) (centerY + r * Math.cos(angle / 2) + textSize + defaultTextPadding), paint);
-        canvas.save();
-
-        //绘制覆盖分布区域图
-        pathLine.reset();
-        pathLine.moveTo(centerX, centerY - r * scaleList.get(0) / floorCount);
-        pathLine.lineTo((float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(1) / floorCount * Math.cos(angle / 2)));
-        pathLine.lineTo((float) (centerX - r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.cos(angle / 2)));
-        pathLine.close();
-        paint.setStyle(Paint.Style.FILL);
-        paint.setColor(areaColor);
-        canvas.drawPath(pathLine, paint);
-        canvas.save();
-
-        //绘制覆盖区域的连接线
-        if (isShowConnect) {
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setColor(areaConnectLineColor);
-            canvas.drawLine(centerX, centerY, centerX, centerY - r * scaleList.get(0) / floorCount, paint);
-            canvas.drawLine(centerX, centerY, (float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(1) / floorCount * Math.cos(angle / 2)), paint);
-            canvas.drawLine(centerX, centerY, (float) (centerX - r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.cos(angle / 2)), paint);
-            canvas.save();
-        }
-
-        //绘制覆盖区域的边框线
-        pathLine.reset();
-        pathLine.moveTo(centerX, centerY - r * scaleList.get(0) / floorCount);
-        pathLine.lineTo((float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(1) / floorCount * Math.cos(angle / 2)));
-        pathLine.lineTo((float) (centerX - r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.cos(angle / 2)));
-        pathLine.close();
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setColor(areaLineColor);
-        canvas.drawPath(pathLine, paint);
-        canvas.save();
-
-        //绘制覆盖区域的圆点
-        paint.setColor(areaLineColor);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawCircle(centerX, centerY - r * scaleList.get(0) / floorCount, 5, paint);
-        canvas.drawCircle((float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(1) / floorCount * Math.cos(angle / 2)), 5, paint);
-        canvas.drawCircle((float) (centerX - r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.cos(angle / 2)), 5, paint);
-        canvas.save();
-    }
-
-    /**
-     * 四角分布器   正方形
-     */
-    private void drawFourAngle(Canvas canvas) {
-        //四边形宽度，高度，边长
-        float ww = mWidth - 2 * defaultTextPadding - textLength * textSize;
-        float hh = ww;
-        //中心点到各角的连线夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        Path pathLine = new Path();
-        //中心点X
-        float centerX = getWidth() / 2;
-        //中心点Y
-        float centerY = getHeight() / 2;
-        //中心点到各角的距离
-        float r = (float) (ww / (2 * Math.cos(angle / 2)));
-        //绘制边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                pathLine.moveTo((float) (centerX - ur * Math.cos(angle / 2)), (float) (centerY - ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle / 2)), (float) (centerY - ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.cos(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.close();
-
-                paint.setStyle(Paint.Style.FILL);
-                if (i % 2 == 0) {
-                    paint.setColor(bgColor);
-                } else {
-                    paint.setColor(bgColor2);
-                }
-                canvas.drawPath(pathLine, paint);
-                canvas.save();
-            }
+    private boolean paddingChanged() {
+        return getPaddingLeft() != layoutPaddingLeft || getPaddingTop() != layoutPaddingTop
+                || getPaddingRight() != layoutPaddingRight || getPaddingBottom() != layoutPaddingBottom;
+    }
+
+    /**
+     * 记录本次构建使用的内边距
+     */
+    private void recordPadding() {
+        layoutPaddingLeft = getPaddingLeft();
+        layoutPaddingTop = getPaddingTop();
+        layoutPaddingRight = getPaddingRight();
+        layoutPaddingBottom = getPaddingBottom();
+    }
+
+    /**
+     * 记录变化并请求重绘，实际的重建推迟到下一次绘制前
+     * 控件尺寸不随内容变化，所以这里不需要 requestLayout
+     */
+    private void markDirty(int flags) {
+        dirtyFlags |= flags;
+        invalidate();
+    }
+
+    /**
+     * 比例数据变化：没有其他待处理的变化时立即计算新顶点，只重绘新旧覆盖区域的并集，
+     * 路径推迟到绘制前生成；否则按整体变化处理
+     * 重绘范围只对软件绘制有效：硬件加速时 invalidate(Rect) 等同于整体重绘，
+     * 此时开启 {@link #setCacheStaticLayer(boolean)} 后静态部分是单独合成的 GPU 图层（Android 10 及以上），
+     * 数据变化的帧只光栅化覆盖区域，不重新光栅化背景网格
+     */
+    private void markDataDirty() {
+        if (!layoutReady || (dirtyFlags & ~(DIRTY_DATA | DIRTY_AREA_PATH)) != 0) {
+            markDirty(DIRTY_DATA);
+            return;
         }
-        //绘制线条
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2)), (float) (centerY - r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2)), (float) (centerY - r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), (float) (centerX - r * Math.sin(angle / 2) - textSize), (float) (centerY - r * Math.cos(angle / 2) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(1), (float) (centerX + r * Math.sin(angle / 2) - textSize), (float) (centerY - r * Math.cos(angle / 2) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(2), (float) (centerX + r * Math.sin(angle / 2) - textSize), (float) (centerY + r * Math.cos(angle / 2) + defaultTextPadding + textSize), paint);
-        canvas.drawText(titles.get(3), (float) (centerX - r * Math.sin(angle / 2) - textSize), (float) (centerY + r * Math.cos(angle / 2) + defaultTextPadding + textSize), paint);
-
-        //绘制覆盖区域
-        Path pathArea = new Path();
-        pathArea.moveTo((float) (centerX - r * scaleList.get(0) / floorCount * Math.sin(angle / 2)), (float) (centerY - r * scaleList.get(0) / floorCount * Math.sin(angle / 2)));
-        pathArea.lineTo((float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle / 2)), (float) (centerY - r * scaleList.get(1) / floorCount * Math.sin(angle / 2)));
-        pathArea.lineTo((float) (centerX + r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.sin(angle / 2)));
-        pathArea.lineTo((float) (centerX - r * scaleList.get(3) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(3) / floorCount * Math.sin(angle / 2)));
-        pathArea.close();
-        paint.setColor(areaColor);
-        canvas.drawPath(pathArea, paint);
-    }
-
-    /**
-     * 五角分布器   正五边形
-     */
-    private void drawFiveAngle(Canvas canvas) {
-        //五边形的宽高   顶点到底边的垂直距离
-        float ww = mWidth - textLength * 2 * textSize - 2 * defaultTextPadding;
-        float hh = ww;
-        //中心点到各角的连线夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        Path pathLine = new Path();
-        //中心点X
-        float centerX = getWidth() / 2;
-        //中心点Y
-        float centerY = getHeight() / 2;
-        float r = ww / 2;
-        //画边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                float x1 = centerX;
-                float y1 = centerY - ur;
-                float x2 = (float) (centerX + ur * Math.sin(angle));
-                float y2 = (float) (centerY - ur * Math.cos(angle));
-                float x3 = (float) (centerX + ur * Math.sin(angle / 2));
-                float y3 = (float) (centerY + ur * Math.cos(angle / 2));
-                float x4 = (float) (centerX - ur * Math.sin(angle / 2));
-                float y4 = (float) (centerY + ur * Math.cos(angle / 2));
-                float x5 = (float) (centerX - ur * Math.sin(angle));
-                float y5 = (float) (centerY - ur * Math.cos(angle));
-                pathLine.moveTo(x1, y1);
-                pathLine.lineTo(x2, y2);
-                pathLine.lineTo(x3, y3);
-                pathLine.lineTo(x4, y4);
-                pathLine.lineTo(x5, y5);
-                pathLine.close();
-            }
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制连线
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo(centerX, centerY - r);
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle)), (float) (centerY - r * Math.cos(angle)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle)), (float) (centerY - r * Math.cos(angle)));
-            canvas.drawPath(pathLine, paint);
-        }
-        //画文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), (float) (centerX - textSize), (float) (centerY - r - defaultTextPadding), paint);
-        canvas.drawText(titles.get(1), (float) (centerX + r * Math.sin(angle) + defaultTextPadding), (float) (centerY - Math.cos(angle) * r + defaultTextPadding), paint);
-        canvas.drawText(titles.get(2), (float) (centerX + Math.sin(angle / 2) * r - textSize), (float) (centerY + Math.cos(angle / 2) * r + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(3), (float) (centerX - Math.sin(angle / 2) * r - textSize), (float) (centerY + Math.cos(angle / 2) * r + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(4), (float) (centerX - r * Math.sin(angle) - defaultTextPadding - textSize * textLength), (float) (centerY - Math.cos(angle) * r + defaultTextPadding), paint);
-
-        //画区域
-        Path pathArea = new Path();
-        pathArea.moveTo(centerX + 0f, centerY - ww / 2 * scaleList.get(0) / floorCount);
-        pathArea.lineTo((float) (centerX + r * scaleList.get(1) / floorCount * Math.sin(angle)), (float) (centerY - r * scaleList.get(1) / floorCount * Math.cos(angle)));
-        pathArea.lineTo((float) (centerX + r * scaleList.get(2) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(2) / floorCount * Math.cos(angle / 2)));
-        pathArea.lineTo((float) (centerX - r * scaleList.get(3) / floorCount * Math.sin(angle / 2)), (float) (centerY + r * scaleList.get(3) / floorCount * Math.cos(angle / 2)));
-        pathArea.lineTo((float) (centerX - r * scaleList.get(4) / floorCount * Math.sin(angle)), (float) (centerY - r * scaleList.get(4) / floorCount * Math.cos(angle)));
-        pathArea.close();
-        paint.setColor(areaColor);
-        canvas.drawPath(pathArea, paint);
-    }
-
-    /**
-     * 六角分布器  正六边形
-     */
-    private void drawSixAngle(Canvas canvas) {
-        //六边形的宽   对角线的距离
-        float ww = mWidth - textLength * 2 * textSize - 2 * defaultTextPadding;
-        //中心点到各角的连线夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        //中心点到各角的距离
-        float r = ww / 2;
-        //六边形的高   顶边到底边的距离
-        float hh = (float) (2 * r * Math.sin(angle));
-        Path pathLine = new Path();
-        //中心点X
-        float centerX = getWidth() / 2;
-        //中心点Y
-        float centerY = getHeight() / 2;
-        //绘制边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                pathLine.moveTo((float) (centerX - ur * Math.cos(angle)), (float) (centerY - ur * Math.sin(angle)));
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle)), (float) (centerY - ur * Math.sin(angle)));
-                pathLine.lineTo((float) (centerX + ur), centerY);
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle)), (float) (centerY + ur * Math.sin(angle)));
-                pathLine.lineTo((float) (centerX - ur * Math.cos(angle)), (float) (centerY + ur * Math.sin(angle)));
-                pathLine.lineTo((float) (centerX - ur), centerY);
-                pathLine.close();
+        areaReady = renderer.buildAreaPoints(scales, scaleCount, areaPoints);
+        updateAreaBounds();
+        dirtyFlags = (dirtyFlags & ~DIRTY_DATA) | DIRTY_AREA_PATH;
+        damageBounds.set(drawnAreaBounds);
+        damageBounds.union(areaBounds);
+        if (!damageBounds.isEmpty()) {
+            invalidate(damageBounds);
+        }
+    }
+
+    /**
+     * 按变化的内容做最少的重建：标题宽度不变时不重建静态图形，数据变化不影响静态图层
+     */
+    private void validate() {
+        //尺寸不变时内边距的变化不会触发 onSizeChanged
+        if (paddingChanged()) {
+            dirtyFlags |= sizeDirtyFlags();
+        }
+        int flags = dirtyFlags;
+        if (flags == 0) {
+            return;
+        }
+        dirtyFlags = 0;
+        if (asyncLayout && (flags & (DIRTY_TEXT | DIRTY_GEOMETRY)) != 0) {
+            //交给后台准备，当前图形保持不变
+            requestPreparedLayout();
+            flags &= ~(DIRTY_TEXT | DIRTY_GEOMETRY);
+        }
+        if ((flags & DIRTY_TEXT) != 0) {
+            TitleLayout old = titleLayout;
+            measureTitles();
+            if (old == null || titleLayout == null || old.maxWidth != titleLayout.maxWidth) {
+                flags |= DIRTY_GEOMETRY;
             }
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制连线
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle)), (float) (centerY - r * Math.sin(angle)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle)), (float) (centerY - r * Math.sin(angle)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r), centerY);
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle)), (float) (centerY + r * Math.sin(angle)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle)), (float) (centerY + r * Math.sin(angle)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo(centerX - r, centerY);
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), (float) (centerX - r * Math.cos(angle) - textSize), (float) (centerY - r * Math.sin(angle) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(1), (float) (centerX + r * Math.cos(angle) - textSize), (float) (centerY - r * Math.sin(angle) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(2), (float) (centerX + r + defaultTextPadding), (float) (centerY + textSize / 2), paint);
-        canvas.drawText(titles.get(3), (float) (centerX + r * Math.cos(angle) - textSize), (float) (centerY + r * Math.sin(angle) + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(4), (float) (centerX - r * Math.cos(angle) - textSize), (float) (centerY + r * Math.sin(angle) + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(5), (float) (centerX - r - textSize * textLength - defaultTextPadding), (float) (centerY + textSize / 2), paint);
-
-        //绘制覆盖区域
-        pathLine.reset();
-        pathLine.moveTo((float) (centerX - r * Math.cos(angle) * scaleList.get(0) / floorCount), (float) (centerY - r * Math.sin(angle) * scaleList.get(0) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.cos(angle) * scaleList.get(1) / floorCount), (float) (centerY - r * Math.sin(angle) * scaleList.get(1) / floorCount));
-        pathLine.lineTo((float) (centerX + r * scaleList.get(2) / floorCount), centerY);
-        pathLine.lineTo((float) (centerX + r * Math.cos(angle) * scaleList.get(3) / floorCount), (float) (centerY + r * Math.sin(angle) * scaleList.get(3) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.cos(angle) * scaleList.get(4) / floorCount), (float) (centerY + r * Math.sin(angle) * scaleList.get(4) / floorCount));
-        pathLine.lineTo((float) (centerX - r * scaleList.get(5) / floorCount), centerY);
-        pathLine.close();
-        paint.setColor(areaColor);
-        canvas.drawPath(pathLine, paint);
-    }
-
-    /**
-     * 七角分布器   正七边形
-     */
-    private void drawSevenAngle(Canvas canvas) {
-        //七边形的宽度
-        float ww = mWidth - textLength * 2 * textSize - 2 * defaultTextPadding;
-        //七边形中心点链接各角的夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        //七边形的边长
-        float a = (float) (ww / (1 + 2 * Math.cos(Math.PI * 52 / 180)));
-        //七边形的顶角到底部的垂直距离
-        float hh = (float) (ww * Math.tan(Math.PI * 50 / 180) / 2 + a * Math.sin(Math.PI * 52 / 180));
-        //中心点到各角的距离
-        float r = (float) (a / 2 / Math.sin(angle / 2));
-        //中心点X
-        float centerX = (getWidth() / 2);
-        //中心点Y
-        float ceterY = r + getPaddingTop() + textSize + defaultTextPadding;
-        Path pathLine = new Path();
-        //绘制边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                pathLine.moveTo(centerX, ceterY - ur);
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle)), (float) (ceterY - ur * Math.cos(angle)));
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle * 3 / 2)), (float) (ceterY + ur * Math.cos(angle * 3 / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle / 2)), (float) (ceterY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.sin(angle / 2)), (float) (ceterY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.sin(angle * 3 / 2)), (float) (ceterY + ur * Math.cos(angle * 3 / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.sin(angle)), (float) (ceterY - ur * Math.cos(angle)));
-                pathLine.close();
+        }
+        if ((flags & DIRTY_GEOMETRY) != 0) {
+            buildLayout();
+            flags |= DIRTY_DATA | DIRTY_SERIES;
+        }
+        if ((flags & (DIRTY_TEXT | DIRTY_GEOMETRY | DIRTY_STYLE)) != 0) {
+            staticLayer.invalidate();
+        }
+        if ((flags & DIRTY_DATA) != 0) {
+            buildArea();
+        } else if ((flags & DIRTY_AREA_PATH) != 0) {
+            if (areaReady) {
+                renderer.buildAreaPath(areaPoints, areaPath);
+            } else {
+                areaPath.rewind();
             }
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制连线
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo(centerX, ceterY - r);
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle)), (float) (ceterY - r * Math.cos(angle)));
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle * 3 / 2)), (float) (ceterY + r * Math.cos(angle * 3 / 2)));
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2)), (float) (ceterY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2)), (float) (ceterY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle * 3 / 2)), (float) (ceterY + r * Math.cos(angle * 3 / 2)));
-            pathLine.moveTo(centerX, ceterY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle)), (float) (ceterY - r * Math.cos(angle)));
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), centerX - textSize, getPaddingTop() + textSize, paint);
-        canvas.drawText(titles.get(1), (float) (centerX + r * Math.sin(angle) + defaultTextPadding), (float) (ceterY - r * Math.cos(angle) + textSize / 2), paint);
-        canvas.drawText(titles.get(2), (float) (centerX + r * Math.sin(angle * 3 / 2) + defaultTextPadding), (float) (ceterY + r * Math.cos(angle * 3 / 2) + textSize / 2), paint);
-        canvas.drawText(titles.get(3), (float) (centerX + r * Math.sin(angle / 2) - textSize), (float) (ceterY + r * Math.cos(angle / 2) + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(4), (float) (centerX - r * Math.sin(angle / 2) - textSize), (float) (ceterY + r * Math.cos(angle / 2) + textSize + defaultTextPadding), paint);
-        canvas.drawText(titles.get(5), (float) (centerX - r * Math.sin(angle * 3 / 2) - textSize * textLength - defaultTextPadding), (float) (ceterY + r * Math.cos(angle * 3 / 2) + textSize / 2), paint);
-        canvas.drawText(titles.get(6), (float) (centerX - r * Math.sin(angle) - textSize * textLength - defaultTextPadding), (float) (ceterY - r * Math.cos(angle) + textSize / 2), paint);
-
-        //绘制区域
-        pathLine.reset();
-        pathLine.moveTo(centerX, ceterY - r * scaleList.get(0) / floorCount);
-        pathLine.lineTo((float) (centerX + r * Math.sin(angle) * scaleList.get(1) / floorCount), (float) (ceterY - r * Math.cos(angle) * scaleList.get(1) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.sin(angle * 3 / 2) * scaleList.get(2) / floorCount), (float) (ceterY + r * Math.cos(angle * 3 / 2) * scaleList.get(2) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2) * scaleList.get(3) / floorCount), (float) (ceterY + r * Math.cos(angle / 2) * scaleList.get(3) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2) * scaleList.get(4) / floorCount), (float) (ceterY + r * Math.cos(angle / 2) * scaleList.get(4) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.sin(angle * 3 / 2) * scaleList.get(5) / floorCount), (float) (ceterY + r * Math.cos(angle * 3 / 2) * scaleList.get(5) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.sin(angle) * scaleList.get(7) / floorCount), (float) (ceterY - r * Math.cos(angle) * scaleList.get(7) / floorCount));
-        pathLine.close();
-        paint.setColor(areaColor);
-        canvas.drawPath(pathLine, paint);
-    }
-
-    /**
-     * 八角分布器   正八边形
-     */
-    private void drawEightAngle(Canvas canvas) {
-        //八边形的宽度
-        float ww = mWidth - textLength * 2 * textSize - 2 * defaultTextPadding;
-        float hh = ww;
-        //八边形中心点链接各角的夹角
-        float angle = (float) (Math.PI * 2 / angleCount);
-        //中心点到各角的距离
-        float r = (float) (ww / 2 / Math.cos(angle / 2));
-        //中心点x
-        float centerX = (getWidth() / 2);
-        //中心点y
-        float centerY = (getHeight() / 2);
-        Path pathLine = new Path();
-        //绘制边框
-        if (isShowLine) {
-            for (int i = 1; i <= floorCount; i++) {
-                float ur = r * i / floorCount;
-                pathLine.moveTo((float) (centerX - ur * Math.sin(angle / 2)), (float) (centerY - ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle / 2)), (float) (centerY - ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle / 2)), (float) (centerY - ur * Math.sin(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.cos(angle / 2)), (float) (centerY + ur * Math.sin(angle / 2)));
-                pathLine.lineTo((float) (centerX + ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.sin(angle / 2)), (float) (centerY + ur * Math.cos(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.cos(angle / 2)), (float) (centerY + ur * Math.sin(angle / 2)));
-                pathLine.lineTo((float) (centerX - ur * Math.cos(angle / 2)), (float) (centerY - ur * Math.sin(angle / 2)));
-                pathLine.close();
+        }
+        //连接线开关会改变覆盖区域范围
+        if ((flags & DIRTY_STYLE) != 0) {
+            updateAreaBounds();
+        }
+        if ((flags & DIRTY_SERIES) != 0) {
+            buildSeries();
+        }
+    }
+
+    /**
+     * 按真实字体度量标题，超长的标题省略结尾，只在标题、字体或尺寸变化时调用
+     */
+    private void measureTitles() {
+        if (titles.size() < style.angleCount) {
+            titleLayout = null;
+            return;
+        }
+        float size = Math.min(getWidth() - getPaddingLeft() - getPaddingRight(),
+                getHeight() - getPaddingTop() - getPaddingBottom());
+        titleLayout = renderer.measureTitles(titles, style.titleLimitWidth(size));
+        metrics.allocation();
+    }
+
+    /**
+     * 构建静态图形（各层背景、边框、连接线、文本位置），只在尺寸、层数、边数或标题宽度变化时调用
+     */
+    private void buildLayout() {
+        layoutReady = false;
+        recordPadding();
+        if (titleLayout == null) {
+            return;
+        }
+        layoutReady = renderer.buildLayout(getPaddingLeft(), getPaddingTop(),
+                getWidth() - getPaddingLeft() - getPaddingRight(),
+                getHeight() - getPaddingTop() - getPaddingBottom(), titleLayout.maxWidth);
+        if (layoutReady) {
+            ensureAreaPoints();
+        }
+    }
+
+    /**
+     * 覆盖区域顶点个数与当前图形的边数一致（后台准备时可能与样式中的边数暂时不同）
+     */
+    private void ensureAreaPoints() {
+        int length = renderer.getLayout().key.angleCount * 2;
+        if (areaPoints.length != length) {
+            areaPoints = new float[length];
+            metrics.allocation();
+        }
+    }
+
+    private void requestPreparedLayout() {
+        recordPadding();
+        int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        layoutPreparer.request(style, titles, getPaddingLeft(), getPaddingTop(), width, height,
+                style.titleLimitWidth(Math.min(width, height)));
+    }
+
+    /**
+     * 应用后台准备好的图形，之后按新图形重建覆盖区域和叠加数据、重新录制静态图层
+     */
+    private void applyPreparedLayout(LayoutPreparer.Model model) {
+        titleLayout = model.titleLayout;
+        renderer.setLayout(model.layout);
+        layoutReady = model.layout != null;
+        if (layoutReady) {
+            ensureAreaPoints();
+        }
+        staticLayer.invalidate();
+        markDirty(DIRTY_DATA | DIRTY_SERIES);
+    }
+
+    /**
+     * 构建覆盖区域，只在比例数据或静态图形变化时调用
+     */
+    private void buildArea() {
+        areaReady = layoutReady && renderer.buildArea(scales, scaleCount, areaPoints, areaPath);
+        updateAreaBounds();
+    }
+
+    private void updateAreaBounds() {
+        dataPointIndexDirty = true;
+        if (areaReady) {
+            renderer.areaBounds(areaPoints, areaBounds);
+        } else {
+            areaBounds.setEmpty();
+        }
+    }
+
+    /**
+     * 构建叠加数据，只在数据或静态图形变化时调用
+     */
+    private void buildSeries() {
+        if (layoutReady) {
+            seriesLayer.build(renderer.getLayout());
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Choreographer current = choreographer();
+        //添加到窗口之前或离开窗口期间投递的数据
+        if (scaleMailbox.hasPending()) {
+            current.postFrameCallback(applyPostedScales);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        staticLayer.release();
+        //未应用的投递数据保留在投递槽中，重新添加到窗口时再应用
+        choreographer().removeFrameCallback(applyPostedScales);
+        //未完成的后台准备在重新显示时重新请求
+        if (layoutPreparer.cancel()) {
+            dirtyFlags |= DIRTY_TEXT | DIRTY_GEOMETRY;
+        }
+        //离开窗口时直接结束动画，避免帧回调继续持有控件
+        if (scaleAnimator.isRunning()) {
+            choreographer().removeFrameCallback(animationFrame);
+            ensureScaleCapacity(scaleAnimator.getCount());
+            scaleAnimator.end(scales);
+            scaleCount = scaleAnimator.getCount();
+            dirtyFlags |= DIRTY_DATA;
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        long frameBegin = metrics.begin();
+        if (dirtyFlags != 0 || paddingChanged()) {
+            long begin = metrics.begin();
+            validate();
+            metrics.end(DistributionMetrics.PHASE_LAYOUT, begin);
+        }
+        if (!layoutReady) {
+            drawnAreaBounds.setEmpty();
+            metrics.end(DistributionMetrics.PHASE_FRAME, frameBegin);
+            return;
+        }
+        if (style.isCacheStaticLayer) {
+            Canvas layerCanvas = staticLayer.beginRecording(canvas, getWidth(), getHeight());
+            if (layerCanvas != null) {
+                drawStatic(layerCanvas);
+                staticLayer.endRecording();
             }
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制连线
-        if (isShowConnect) {
-            pathLine.reset();
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2)), (float) (centerY - r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2)), (float) (centerY - r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2)), (float) (centerY - r * Math.sin(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2)), (float) (centerY + r * Math.sin(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2)), (float) (centerY + r * Math.cos(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2)), (float) (centerY + r * Math.sin(angle / 2)));
-            pathLine.moveTo(centerX, centerY);
-            pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2)), (float) (centerY - r * Math.sin(angle / 2)));
-            canvas.drawPath(pathLine, paint);
-        }
-        //绘制文本
-        paint.setColor(textColor);
-        paint.setTextSize(textSize);
-        paint.setStyle(Paint.Style.FILL);
-        canvas.drawText(titles.get(0), (float) (centerX - r * Math.sin(angle / 2) - textSize), (float) (centerY - r * Math.cos(angle / 2) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(1), (float) (centerX + r * Math.sin(angle / 2) - textSize), (float) (centerY - r * Math.cos(angle / 2) - defaultTextPadding), paint);
-        canvas.drawText(titles.get(2), (float) (centerX + r * Math.cos(angle / 2) + defaultTextPadding), (float) (centerY - r * Math.sin(angle / 2) + textSize / 2), paint);
-        canvas.drawText(titles.get(3), (float) (centerX + r * Math.cos(angle / 2) + defaultTextPadding), (float) (centerY + r * Math.sin(angle / 2) + textSize / 2), paint);
-        canvas.drawText(titles.get(4), (float) (centerX + r * Math.sin(angle / 2) - textSize), (float) (centerY + r * Math.cos(angle / 2) + defaultTextPadding + textSize), paint);
-        canvas.drawText(titles.get(5), (float) (centerX - r * Math.sin(angle / 2) - textSize), (float) (centerY + r * Math.cos(angle / 2) + defaultTextPadding + textSize), paint);
-        canvas.drawText(titles.get(6), (float) (centerX - r * Math.cos(angle / 2) - textSize * textLength - defaultTextPadding), (float) (centerY + r * Math.sin(angle / 2) + textSize / 2), paint);
-        canvas.drawText(titles.get(7), (float) (centerX - r * Math.cos(angle / 2) - textSize * textLength - defaultTextPadding), (float) (centerY - r * Math.sin(angle / 2) + textSize / 2), paint);
-
-        //绘制区域
-        pathLine.reset();
-        pathLine.moveTo((float) (centerX - r * Math.sin(angle / 2) * scaleList.get(0) / floorCount), (float) (centerY - r * Math.cos(angle / 2) * scaleList.get(0) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2) * scaleList.get(1) / floorCount), (float) (centerY - r * Math.cos(angle / 2) * scaleList.get(1) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2) * scaleList.get(2) / floorCount), (float) (centerY - r * Math.sin(angle / 2) * scaleList.get(2) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.cos(angle / 2) * scaleList.get(3) / floorCount), (float) (centerY + r * Math.sin(angle / 2) * scaleList.get(3) / floorCount));
-        pathLine.lineTo((float) (centerX + r * Math.sin(angle / 2) * scaleList.get(4) / floorCount), (float) (centerY + r * Math.cos(angle / 2) * scaleList.get(4) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.sin(angle / 2) * scaleList.get(5) / floorCount), (float) (centerY + r * Math.cos(angle / 2) * scaleList.get(5) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2) * scaleList.get(6) / floorCount), (float) (centerY + r * Math.sin(angle / 2) * scaleList.get(6) / floorCount));
-        pathLine.lineTo((float) (centerX - r * Math.cos(angle / 2) * scaleList.get(7) / floorCount), (float) (centerY - r * Math.sin(angle / 2) * scaleList.get(7) / floorCount));
-        pathLine.close();
-        paint.setColor(areaColor);
-        canvas.drawPath(pathLine, paint);
-    }
-}
\ No newline at end of file
+            staticLayer.draw(canvas);
+        } else {
+            drawStatic(canvas);
+        }
+        if (seriesLayer.size() > 0) {
+            long begin = metrics.begin();
+            seriesLayer.draw(canvas);
+            metrics.end(DistributionMetrics.PHASE_SERIES, begin);
+        }
+        if (areaReady) {
+            long begin = metrics.begin();
+            drawArea(canvas);
+            metrics.end(DistributionMetrics.PHASE_AREA, begin);
+        }
+        drawnAreaBounds.set(areaBounds);
+        metrics.end(DistributionMetrics.PHASE_FRAME, frameBegin);
+    }
+
+    /**
+     * 绘制不随比例数据变化的部分：背景、边框、连接线、文本
+     */
+    private void drawStatic(Canvas canvas) {
+        renderer.drawWeb(canvas);
+        renderer.drawTitles(canvas, titleLayout);
+    }
+
+    /**
+     * 绘制覆盖区域：填充、连接线、边框线和圆点
+     */
+    private void drawArea(Canvas canvas) {
+        renderer.drawArea(canvas, areaPath, areaPoints);
+    }
+}
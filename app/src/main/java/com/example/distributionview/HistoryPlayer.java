@@ -0,0 +1,169 @@
+package com.example.distributionview;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import com.example.distributionview.core.ScaleHistory;
+
+/**
+ * 历史记录的拖动与回放，在UI线程使用
+ * 拖动时按时间插值后直接设置到控件；回放时每帧按显示时间推进一次，记录时间按毫秒处理
+ * 比例缓冲区预先分配，拖动和回放过程中不分配内存
+ * 控件离开窗口时暂停回放（不再投递帧回调，避免继续持有控件和 Activity），重新添加到窗口时从暂停的位置继续
+ */
+public class HistoryPlayer {
+
+    /**
+     * 回放位置变化回调，每帧一次，可用于同步进度条
+     */
+    public interface OnPlaybackListener {
+        /**
+         * @param time  当前显示的记录时间
+         * @param ended 是否已播放到最近一条记录，此后不再回调
+         */
+        void onPlaybackPosition(HistoryPlayer player, long time, boolean ended);
+    }
+
+    private final DistributionView view;
+    private final ScaleHistory history;
+    //插值结果，复用
+    private final float[] buffer;
+    //UI线程的 Choreographer，第一次回放时取得，不在构造时绑定
+    private Choreographer choreographer;
+    private OnPlaybackListener listener;
+    //当前显示的记录时间
+    private long position;
+    //回放速度：每秒推进的记录时间为 1000 * speed 毫秒
+    private float speed = 1f;
+    //回放开始时的记录时间与第一帧的时间，-1表示还没有收到第一帧
+    private long playStartPosition;
+    private long playStartNanos = -1;
+    private boolean playing;
+    //离开窗口时暂停，或在添加到窗口之前调用了 play，添加到窗口后开始回放
+    private boolean resumeOnAttach;
+    private final View.OnAttachStateChangeListener attachListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            if (resumeOnAttach) {
+                resumeOnAttach = false;
+                play();
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            if (playing) {
+                stop();
+                resumeOnAttach = true;
+            }
+        }
+    };
+    private final Choreographer.FrameCallback playbackFrame = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (playStartNanos < 0) {
+                playStartNanos = frameTimeNanos;
+            }
+            long time = playStartPosition + (long) ((frameTimeNanos - playStartNanos) / 1000000.0 * speed);
+            boolean ended = history.size() == 0 || time >= history.getEndTime();
+            show(ended && history.size() > 0 ? history.getEndTime() : time);
+            if (ended) {
+                playing = false;
+            } else {
+                choreographer.postFrameCallback(this);
+            }
+            if (listener != null) {
+                listener.onPlaybackPosition(HistoryPlayer.this, position, ended);
+            }
+        }
+    };
+
+    public HistoryPlayer(DistributionView view, ScaleHistory history) {
+        this.view = view;
+        this.history = history;
+        buffer = new float[history.getAngleCount()];
+        view.addOnAttachStateChangeListener(attachListener);
+    }
+
+    public HistoryPlayer setOnPlaybackListener(OnPlaybackListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * 设置回放速度，1为实际速度，60表示每秒播放一分钟的记录
+     */
+    public HistoryPlayer setSpeed(float speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed=" + speed);
+        }
+        if (playing) {
+            //从当前位置按新速度继续
+            playStartPosition = position;
+            playStartNanos = -1;
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * 显示time时刻的比例（两条记录之间按时间插值），会停止回放；拖动进度条时调用
+     */
+    public void seekTo(long time) {
+        stop();
+        show(time);
+    }
+
+    /**
+     * 从当前位置开始按显示帧率回放，已在最近一条记录时从最早一条开始
+     * 控件还没有添加到窗口时，添加后再开始
+     */
+    public void play() {
+        if (playing || history.size() == 0) {
+            return;
+        }
+        if (!view.isAttachedToWindow()) {
+            resumeOnAttach = true;
+            return;
+        }
+        if (position < history.getStartTime() || position >= history.getEndTime()) {
+            position = history.getStartTime();
+        }
+        playStartPosition = position;
+        playStartNanos = -1;
+        playing = true;
+        if (choreographer == null) {
+            choreographer = Choreographer.getInstance();
+        }
+        choreographer.postFrameCallback(playbackFrame);
+    }
+
+    /**
+     * 停止回放，停留在当前位置
+     */
+    public void stop() {
+        resumeOnAttach = false;
+        if (playing) {
+            playing = false;
+            choreographer.removeFrameCallback(playbackFrame);
+        }
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * 当前显示的记录时间
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private void show(long time) {
+        position = time;
+        if (history.sample(time, buffer, 0)) {
+            view.setScales(buffer, 0, buffer.length);
+        }
+    }
+}
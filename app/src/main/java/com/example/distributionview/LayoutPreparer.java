@@ -0,0 +1,130 @@
+package com.example.distributionview;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在后台线程准备静态图形和标题排版，准备好后在UI线程整体替换
+ * 每次请求使用调用时的样式和标题副本；新的请求会取消还没有完成的旧请求，旧结果不会被应用
+ * 所有控件共用一组后台线程
+ */
+final class LayoutPreparer {
+    //后台线程数，留出一个核给UI线程
+    private static final int THREAD_COUNT = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT, new ThreadFactory() {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "DistributionLayout-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * 准备好的绘制数据，应用后不再修改
+     */
+    static final class Model {
+        //标题不足时为null
+        final TitleLayout titleLayout;
+        //区域容纳不下图形或标题不足时为null
+        final ChartLayout layout;
+
+        Model(TitleLayout titleLayout, ChartLayout layout) {
+            this.titleLayout = titleLayout;
+            this.layout = layout;
+        }
+    }
+
+    /**
+     * 结果回调，在UI线程调用，只会收到最近一次请求的结果
+     */
+    interface Callback {
+        void onPrepared(Model model);
+    }
+
+    private final View view;
+    private final Callback callback;
+    //请求序号，只应用与之相同的结果；后台线程据此提前放弃过期的请求
+    private final AtomicInteger generation = new AtomicInteger();
+    private Future<?> pending;
+
+    LayoutPreparer(View view, Callback callback) {
+        this.view = view;
+        this.callback = callback;
+    }
+
+    /**
+     * 请求在 (left, top, width, height) 区域内准备图形，样式和标题会被复制，调用后可以继续修改
+     *
+     * @param limitWidth 单个标题的最大宽度
+     */
+    void request(DistributionStyle style, List<String> titles, final float left, final float top,
+                 final float width, final float height, final float limitWidth) {
+        cancel();
+        final int id = generation.get();
+        final DistributionStyle styleCopy = style.copy();
+        final List<String> titlesCopy = new ArrayList<>(titles);
+        pending = EXECUTOR.submit(new Runnable() {
+            @Override
+            public void run() {
+                final Model model = prepare(id, styleCopy, titlesCopy, left, top, width, height, limitWidth);
+                if (model == null) {
+                    return;
+                }
+                view.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation.get() == id) {
+                            pending = null;
+                            callback.onPrepared(model);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 取消还没有应用的请求
+     *
+     * @return 是否有被取消的请求
+     */
+    boolean cancel() {
+        generation.incrementAndGet();
+        if (pending == null) {
+            return false;
+        }
+        pending.cancel(false);
+        pending = null;
+        return true;
+    }
+
+    /**
+     * 在后台线程度量标题并取得静态图形（都来自共享缓存），请求过期时返回null
+     */
+    private Model prepare(int id, DistributionStyle style, List<String> titles, float left, float top,
+                          float width, float height, float limitWidth) {
+        if (titles.size() < style.angleCount) {
+            return new Model(null, null);
+        }
+        //独立的画笔，只用于度量
+        DistributionRenderer renderer = new DistributionRenderer(style);
+        TitleLayout titleLayout = renderer.measureTitles(titles, limitWidth);
+        if (generation.get() != id) {
+            return null;
+        }
+        if (!renderer.buildLayout(left, top, width, height, titleLayout.maxWidth)) {
+            return new Model(titleLayout, null);
+        }
+        return generation.get() == id ? new Model(titleLayout, renderer.getLayout()) : null;
+    }
+}
@@ -4,11 +4,23 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import android.os.Bundle;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
+
+        //示例数据设置
+        List<String> titleList = Arrays.asList("数据1", "数据2", "数据3");
+        float[] scales = {0.5f, 0.1f, 1f};
+        int[] ids = {R.id.distribution_view1, R.id.distribution_view2, R.id.distribution_view3};
+        for (int id : ids) {
+            DistributionView view = findViewById(id);
+            view.setTitle(titleList).setScales(scales);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.example.distributionview;
+
+import com.example.distributionview.core.LatencyHistogram;
+
+/**
+ * 绘制耗时记录，默认关闭
+ * 关闭时每个阶段只多一次布尔判断；开启后每个阶段读取两次纳秒时钟并写入直方图
+ * 记录在UI线程进行，快照可以在任意线程生成
+ */
+final class RenderMetrics {
+    //从不开启的实例，未设置统计的绘制逻辑使用
+    static final RenderMetrics NONE = new RenderMetrics();
+    //默认帧预算（60Hz）
+    static final long DEFAULT_FRAME_BUDGET_NANOS = 16_666_667L;
+
+    private volatile boolean enabled = false;
+    private final LatencyHistogram[] phases = new LatencyHistogram[DistributionMetrics.PHASE_COUNT];
+    private long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private long overBudgetFrameCount;
+    private long staticLayerHitCount;
+    private long staticLayerMissCount;
+    private long allocationCount;
+
+    RenderMetrics() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    synchronized void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * 阶段开始，关闭时返回0
+     */
+    long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 阶段结束，begin为0（开始时未开启）时忽略
+     */
+    void end(int phase, long begin) {
+        if (begin == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - begin;
+        synchronized (this) {
+            phases[phase].record(nanos);
+            if (phase == DistributionMetrics.PHASE_FRAME && nanos > frameBudgetNanos) {
+                overBudgetFrameCount++;
+            }
+        }
+    }
+
+    /**
+     * 记录静态图层是否直接复用
+     */
+    void staticLayer(boolean hit) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (hit) {
+                staticLayerHitCount++;
+            } else {
+                staticLayerMissCount++;
+            }
+        }
+    }
+
+    /**
+     * 记录一次绘制相关的内存分配
+     */
+    void allocation() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            allocationCount++;
+        }
+    }
+
+    synchronized DistributionMetrics snapshot() {
+        LatencyHistogram[] copies = new LatencyHistogram[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            copies[i] = new LatencyHistogram(phases[i]);
+        }
+        return new DistributionMetrics(copies, frameBudgetNanos, overBudgetFrameCount,
+                staticLayerHitCount, staticLayerMissCount, allocationCount);
+    }
+
+    synchronized void reset() {
+        for (LatencyHistogram phase : phases) {
+            phase.reset();
+        }
+        overBudgetFrameCount = 0;
+        staticLayerHitCount = 0;
+        staticLayerMissCount = 0;
+        allocationCount = 0;
+    }
+}
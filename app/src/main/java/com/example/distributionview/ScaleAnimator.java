@@ -0,0 +1,97 @@
+package com.example.distributionview;
+
+import android.animation.TimeInterpolator;
+
+import com.example.distributionview.core.ScaleMath;
+
+/**
+ * 比例数据插值动画
+ * 起止数据保存在预分配的缓冲区中，每帧只做线性插值，动画进行中重新设置目标也不分配内存
+ */
+final class ScaleAnimator {
+    //起始比例
+    private float[] from = new float[0];
+    //目标比例
+    private float[] to = new float[0];
+    //比例个数
+    private int count;
+    //动画时长（纳秒）
+    private long durationNanos;
+    //第一帧的时间，-1表示还没有开始
+    private long startNanos = -1;
+    //时间插值器，为null时按线性处理
+    private TimeInterpolator interpolator;
+    private boolean running;
+
+    /**
+     * 开始（或重新开始）一段动画
+     *
+     * @param current      当前显示的比例，作为起点；个数不足的部分从0开始
+     * @param currentCount 当前比例个数
+     * @param target       目标比例，从target[offset]开始取count个
+     */
+    void start(float[] current, int currentCount, float[] target, int offset, int count,
+               long durationMs, TimeInterpolator interpolator) {
+        if (from.length < count) {
+            from = new float[count];
+            to = new float[count];
+        }
+        for (int i = 0; i < count; i++) {
+            from[i] = i < currentCount ? current[i] : 0f;
+            to[i] = ScaleMath.clamp(target[offset + i]);
+        }
+        this.count = count;
+        this.durationNanos = Math.max(durationMs, 1) * 1000000L;
+        this.interpolator = interpolator;
+        startNanos = -1;
+        running = true;
+    }
+
+    /**
+     * 计算frameTimeNanos时刻的比例并写入out
+     *
+     * @return 动画是否仍在进行
+     */
+    boolean step(long frameTimeNanos, float[] out) {
+        if (!running) {
+            return false;
+        }
+        if (startNanos < 0) {
+            startNanos = frameTimeNanos;
+        }
+        float fraction = (float) (frameTimeNanos - startNanos) / durationNanos;
+        if (fraction >= 1f) {
+            end(out);
+            return false;
+        }
+        if (interpolator != null) {
+            fraction = interpolator.getInterpolation(fraction);
+        }
+        ScaleMath.lerp(from, to, fraction, out, count);
+        return true;
+    }
+
+    /**
+     * 直接结束动画，把目标比例写入out
+     */
+    void end(float[] out) {
+        System.arraycopy(to, 0, out, 0, count);
+        running = false;
+    }
+
+    /**
+     * 取消动画，保留当前显示的比例
+     */
+    void cancel() {
+        running = false;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.distributionview;
+
+import com.example.distributionview.core.ScaleAggregator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 跨线程比例数据投递槽（无锁）
+ * 任意线程投递最新一组比例，UI线程每帧最多取出一次；取出前被新数据覆盖的记为合并
+ * 三重缓冲：投递线程、待处理槽、UI线程各持有一个缓冲区，另有两个备用槽存放归还的缓冲区；
+ * 投递快于刷新时投递线程换下的旧数据和UI线程用完的数据都能放回备用槽，单个投递线程时稳定状态下不再分配内存
+ */
+final class ScaleMailbox {
+
+    /**
+     * 一组比例数据
+     */
+    static final class Frame {
+        float[] values = new float[0];
+        int count;
+    }
+
+    //最新的待处理数据
+    private final AtomicReference<Frame> pending = new AtomicReference<>();
+    //可复用的空闲缓冲区
+    private final AtomicReference<Frame> spare = new AtomicReference<>();
+    private final AtomicReference<Frame> spare2 = new AtomicReference<>();
+    //投递次数
+    private final AtomicLong postedCount = new AtomicLong();
+    //被更新数据覆盖、没有显示出来的次数
+    private final AtomicLong coalescedCount = new AtomicLong();
+    //UI线程实际应用的次数
+    private final AtomicLong appliedCount = new AtomicLong();
+
+    /**
+     * 投递一组比例，可在任意线程调用
+     *
+     * @return 投递前没有待处理的数据，调用方需要调度一次新的帧回调
+     */
+    boolean post(float[] values, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > values.length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", count=" + count + ", length=" + values.length);
+        }
+        Frame frame = obtain(count);
+        System.arraycopy(values, offset, frame.values, 0, count);
+        frame.count = count;
+        return publish(frame);
+    }
+
+    /**
+     * 投递聚合器当前的统计结果，直接写入投递缓冲区，可在任意线程调用
+     *
+     * @return 同 {@link #post(float[], int, int)}
+     */
+    boolean post(ScaleAggregator aggregator) {
+        Frame frame = obtain(aggregator.getAxisCount());
+        frame.count = aggregator.snapshot(frame.values, 0);
+        return publish(frame);
+    }
+
+    private Frame obtain(int count) {
+        Frame frame = spare.getAndSet(null);
+        if (frame == null) {
+            frame = spare2.getAndSet(null);
+        }
+        if (frame == null) {
+            frame = new Frame();
+        }
+        if (frame.values.length < count) {
+            frame.values = new float[count];
+        }
+        return frame;
+    }
+
+    private boolean publish(Frame frame) {
+        postedCount.incrementAndGet();
+        Frame previous = pending.getAndSet(frame);
+        if (previous == null) {
+            return true;
+        }
+        coalescedCount.incrementAndGet();
+        recycle(previous);
+        return false;
+    }
+
+    /**
+     * 取出最新的一组比例，没有新数据时返回null，用完后需调用{@link #recycle(Frame)}
+     */
+    Frame take() {
+        Frame frame = pending.getAndSet(null);
+        if (frame != null) {
+            appliedCount.incrementAndGet();
+        }
+        return frame;
+    }
+
+    /**
+     * 归还缓冲区，两个备用槽都被占用时（多个线程同时投递）直接丢弃
+     */
+    void recycle(Frame frame) {
+        if (!spare.compareAndSet(null, frame)) {
+            spare2.compareAndSet(null, frame);
+        }
+    }
+
+    /**
+     * 是否有还没有取出的数据
+     */
+    boolean hasPending() {
+        return pending.get() != null;
+    }
+
+    long getPostedCount() {
+        return postedCount.get();
+    }
+
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    long getAppliedCount() {
+        return appliedCount.get();
+    }
+}
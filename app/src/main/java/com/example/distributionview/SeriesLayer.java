@@ -0,0 +1,202 @@
+package com.example.distributionview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import com.example.distributionview.core.ScaleMath;
+
+import java.util.ArrayList;
+
+/**
+ * 多组数据叠加图层
+ * 同一组颜色的所有数据合并到一条路径和一组圆点里，绘制次数只与颜色种类有关，与数据组数无关
+ * 同色数据重叠的部分只填充一次
+ */
+final class SeriesLayer {
+
+    /**
+     * 一组数据
+     */
+    private static final class Series {
+        final int id;
+        float[] values = new float[0];
+        int count;
+        int areaColor;
+        int areaLineColor;
+
+        Series(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * 同一颜色的合并绘制批次
+     */
+    private static final class StyleGroup {
+        int areaColor;
+        int areaLineColor;
+        final Path path = new Path();
+        float[] dots = new float[0];
+        int dotCount;
+    }
+
+    private final ArrayList<Series> seriesList = new ArrayList<>();
+    private final ArrayList<StyleGroup> groups = new ArrayList<>();
+    //本次构建使用的批次数
+    private int groupCount = 0;
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    SeriesLayer() {
+        fillPaint.setStyle(Paint.Style.FILL);
+        linePaint.setStyle(Paint.Style.STROKE);
+        dotPaint.setStyle(Paint.Style.STROKE);
+        dotPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * 设置线宽和圆点半径
+     */
+    void setStroke(float lineWidth, float dotRadius) {
+        linePaint.setStrokeWidth(lineWidth);
+        dotPaint.setStrokeWidth(dotRadius * 2);
+    }
+
+    /**
+     * 添加一组数据，id已存在时替换
+     */
+    void put(int id, float[] values, int offset, int count, int areaColor, int areaLineColor) {
+        Series series = find(id);
+        if (series == null) {
+            series = new Series(id);
+            seriesList.add(series);
+        }
+        series.areaColor = areaColor;
+        series.areaLineColor = areaLineColor;
+        copy(series, values, offset, count);
+    }
+
+    /**
+     * 更新一组数据的比例
+     *
+     * @return id不存在时返回false
+     */
+    boolean update(int id, float[] values, int offset, int count) {
+        Series series = find(id);
+        if (series == null) {
+            return false;
+        }
+        copy(series, values, offset, count);
+        return true;
+    }
+
+    /**
+     * 移除一组数据
+     *
+     * @return id不存在时返回false
+     */
+    boolean remove(int id) {
+        for (int i = 0; i < seriesList.size(); i++) {
+            if (seriesList.get(i).id == id) {
+                seriesList.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        seriesList.clear();
+        groupCount = 0;
+    }
+
+    int size() {
+        return seriesList.size();
+    }
+
+    /**
+     * 按当前图形尺寸重新生成各批次的路径和圆点
+     */
+    void build(ChartLayout layout) {
+        groupCount = 0;
+        int angleCount = layout.key.angleCount;
+        for (int s = 0; s < seriesList.size(); s++) {
+            Series series = seriesList.get(s);
+            if (series.count < angleCount) {
+                continue;
+            }
+            StyleGroup group = obtainGroup(series.areaColor, series.areaLineColor);
+            if (group.dots.length < group.dotCount + angleCount * 2) {
+                float[] dots = new float[Math.max(group.dots.length * 2, group.dotCount + angleCount * 2)];
+                System.arraycopy(group.dots, 0, dots, 0, group.dotCount);
+                group.dots = dots;
+            }
+            layout.shape.dataPoints(series.values, 0, group.dots, group.dotCount);
+            float[] dots = group.dots;
+            int start = group.dotCount;
+            group.path.moveTo(dots[start], dots[start + 1]);
+            for (int i = 1; i < angleCount; i++) {
+                group.path.lineTo(dots[start + i * 2], dots[start + i * 2 + 1]);
+            }
+            group.path.close();
+            group.dotCount += angleCount * 2;
+        }
+    }
+
+    /**
+     * 一次绘制所有数据：每个批次填充、边框、圆点各一次
+     */
+    void draw(Canvas canvas) {
+        for (int i = 0; i < groupCount; i++) {
+            StyleGroup group = groups.get(i);
+            fillPaint.setColor(group.areaColor);
+            canvas.drawPath(group.path, fillPaint);
+            linePaint.setColor(group.areaLineColor);
+            canvas.drawPath(group.path, linePaint);
+            dotPaint.setColor(group.areaLineColor);
+            canvas.drawPoints(group.dots, 0, group.dotCount, dotPaint);
+        }
+    }
+
+    private Series find(int id) {
+        for (int i = 0; i < seriesList.size(); i++) {
+            if (seriesList.get(i).id == id) {
+                return seriesList.get(i);
+            }
+        }
+        return null;
+    }
+
+    private StyleGroup obtainGroup(int areaColor, int areaLineColor) {
+        for (int i = 0; i < groupCount; i++) {
+            StyleGroup group = groups.get(i);
+            if (group.areaColor == areaColor && group.areaLineColor == areaLineColor) {
+                return group;
+            }
+        }
+        if (groupCount == groups.size()) {
+            groups.add(new StyleGroup());
+        }
+        StyleGroup group = groups.get(groupCount++);
+        group.areaColor = areaColor;
+        group.areaLineColor = areaLineColor;
+        group.path.rewind();
+        group.dotCount = 0;
+        return group;
+    }
+
+    private static void copy(Series series, float[] values, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > values.length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", count=" + count + ", length=" + values.length);
+        }
+        if (series.values.length < count) {
+            series.values = new float[count];
+        }
+        for (int i = 0; i < count; i++) {
+            series.values[i] = ScaleMath.clamp(values[offset + i]);
+        }
+        series.count = count;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.distributionview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+/**
+ * 静态图层缓存
+ * 背景、边框、连接线和文本录制一次后重复使用，数据变化时只需重绘覆盖区域
+ * 硬件加速（Android 10 及以上）使用 RenderNode 保存显示列表，并让它单独合成为一个 GPU 图层：
+ * 静态内容只光栅化一次，之后数据变化的帧只合成这个图层，不再重新光栅化背景网格；否则缓存到 Bitmap
+ *
+ * 用法：
+ * <pre>
+ * Canvas layerCanvas = layer.beginRecording(canvas, width, height);
+ * if (layerCanvas != null) {
+ *     drawBackground(layerCanvas);
+ *     layer.endRecording();
+ * }
+ * layer.draw(canvas);
+ * </pre>
+ */
+final class StaticLayer {
+    //硬件加速下的显示列表
+    private RenderNode renderNode;
+    //软件绘制下的缓存位图
+    private Bitmap bitmap;
+    private final Canvas bitmapCanvas = new Canvas();
+    //缓存内容是否有效
+    private boolean valid = false;
+    //当前是否在录制显示列表
+    private boolean recordingNode = false;
+    //绘制耗时统计
+    private RenderMetrics metrics = RenderMetrics.NONE;
+
+    void setMetrics(RenderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 标记缓存失效，下次绘制时重新录制
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * 缓存无效时开始录制，返回用于绘制静态内容的画布；缓存有效时返回null
+     */
+    Canvas beginRecording(Canvas target, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && target.isHardwareAccelerated()) {
+            releaseBitmap();
+            if (renderNode == null) {
+                renderNode = new RenderNode("DistributionView");
+                //单独的合成图层，显示列表不变时不重新光栅化
+                renderNode.setUseCompositingLayer(true, null);
+                metrics.allocation();
+            }
+            if (valid && renderNode.hasDisplayList() && renderNode.getWidth() == width && renderNode.getHeight() == height) {
+                metrics.staticLayer(true);
+                return null;
+            }
+            metrics.staticLayer(false);
+            renderNode.setPosition(0, 0, width, height);
+            recordingNode = true;
+            return renderNode.beginRecording(width, height);
+        }
+        releaseNode();
+        if (bitmap != null && (bitmap.getWidth() != width || bitmap.getHeight() != height)) {
+            releaseBitmap();
+        }
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            bitmapCanvas.setBitmap(bitmap);
+            valid = false;
+            metrics.allocation();
+        }
+        metrics.staticLayer(valid);
+        if (valid) {
+            return null;
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmapCanvas;
+    }
+
+    /**
+     * 结束录制
+     */
+    void endRecording() {
+        if (recordingNode) {
+            renderNode.endRecording();
+            recordingNode = false;
+        }
+        valid = true;
+    }
+
+    /**
+     * 将缓存内容绘制到目标画布
+     */
+    void draw(Canvas target) {
+        if (!valid) {
+            return;
+        }
+        if (renderNode != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            target.drawRenderNode(renderNode);
+        } else if (bitmap != null) {
+            target.drawBitmap(bitmap, 0, 0, null);
+        }
+    }
+
+    /**
+     * 释放缓存占用的位图和显示列表
+     */
+    void release() {
+        releaseNode();
+        releaseBitmap();
+    }
+
+    private void releaseNode() {
+        if (renderNode != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            renderNode.discardDisplayList();
+            renderNode = null;
+            valid = false;
+        }
+    }
+
+    private void releaseBitmap() {
+        if (bitmap != null) {
+            bitmapCanvas.setBitmap(null);
+            bitmap.recycle();
+            bitmap = null;
+            valid = false;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.distributionview;
+
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.graphics.fonts.Font;
+import android.graphics.text.PositionedGlyphs;
+import android.graphics.text.TextRunShaper;
+import android.os.Build;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 属性标题排版缓存
+ * 标题设置时按画笔的真实字体度量一次：超长的标题省略结尾，记录实际宽度；
+ * Android 12 及以上同时缓存字形排版结果，绘制时直接提交字形，不再每帧排版
+ * 只有标题、字体或文本大小变化时才需要重新构建
+ * 构建后不再修改，绘制位置在绘制时按静态图形的锚点计算，可以在控件、线程之间共用（见 {@link DistributionLayoutCache}）
+ */
+final class TitleLayout {
+
+    /**
+     * 缓存键：度量结果只取决于标题、文本大小、字体和最大宽度
+     */
+    static final class Key {
+        final String[] titles;
+        final float textSize;
+        final Typeface typeface;
+        final float limitWidth;
+        private final int hash;
+
+        Key(List<String> titles, int count, float textSize, Typeface typeface, float limitWidth) {
+            this.titles = titles.subList(0, count).toArray(new String[count]);
+            this.textSize = textSize;
+            this.typeface = typeface;
+            this.limitWidth = limitWidth;
+            int result = Arrays.hashCode(this.titles);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface == null ? 0 : typeface.hashCode());
+            result = 31 * result + Float.floatToIntBits(limitWidth);
+            hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash
+                    && Float.compare(textSize, key.textSize) == 0
+                    && Float.compare(limitWidth, key.limitWidth) == 0
+                    && (typeface == null ? key.typeface == null : typeface.equals(key.typeface))
+                    && Arrays.equals(titles, key.titles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 一个标题的字形，按字体分段
+     */
+    private static final class Glyphs {
+        final int[] ids;
+        //相对文本起点的字形坐标，绘制时平移到文本起点
+        final float[] offsets;
+        //各段起始字形下标，最后一项为字形总数
+        final int[] runStarts;
+        final Font[] runFonts;
+
+        Glyphs(int[] ids, float[] offsets, int[] runStarts, Font[] runFonts) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.runStarts = runStarts;
+            this.runFonts = runFonts;
+        }
+    }
+
+    //绘制的文本（超长时已省略）
+    final String[] texts;
+    //各文本的实际宽度
+    final float[] widths;
+    //最宽的文本宽度，用于预留文本空间
+    final float maxWidth;
+    //已排版的字形，不支持时为null
+    private final Glyphs[] glyphs;
+
+    private TitleLayout(String[] texts, float[] widths, Glyphs[] glyphs) {
+        this.texts = texts;
+        this.widths = widths;
+        this.glyphs = glyphs;
+        float max = 0f;
+        for (float width : widths) {
+            max = Math.max(max, width);
+        }
+        this.maxWidth = max;
+    }
+
+    /**
+     * 度量前count个标题
+     *
+     * @param limitWidth 单个标题的最大宽度，超出时省略结尾；不大于0时不限制
+     */
+    static TitleLayout measure(List<String> titles, int count, TextPaint paint, float limitWidth) {
+        String[] texts = new String[count];
+        float[] widths = new float[count];
+        Glyphs[] glyphs = new Glyphs[count];
+        for (int i = 0; i < count; i++) {
+            String text = titles.get(i);
+            if (limitWidth > 0 && paint.measureText(text) > limitWidth) {
+                text = TextUtils.ellipsize(text, paint, limitWidth, TextUtils.TruncateAt.END).toString();
+            }
+            texts[i] = text;
+            widths[i] = paint.measureText(text);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !hasRtl(text)) {
+                glyphs[i] = shape(text, paint);
+            }
+        }
+        return new TitleLayout(texts, widths, glyphs);
+    }
+
+    /**
+     * 按静态图形的文本锚点绘制标题；字形按文本起点平移画布后提交，绘制后平移回来
+     */
+    void draw(Canvas canvas, TextPaint paint, ChartLayout layout) {
+        for (int i = 0; i < texts.length; i++) {
+            //高密度模式下按间距抽稀
+            if (!layout.isLabelVisible(i)) {
+                continue;
+            }
+            float x = layout.anchorX[i] - widths[i] * layout.alignX[i];
+            float y = layout.anchorY[i];
+            Glyphs g = glyphs[i];
+            if (g == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.S) {
+                canvas.drawText(texts[i], x, y, paint);
+                continue;
+            }
+            canvas.translate(x, y);
+            for (int run = 0; run < g.runFonts.length; run++) {
+                int start = g.runStarts[run];
+                canvas.drawGlyphs(g.ids, start, g.offsets, start * 2, g.runStarts[run + 1] - start, g.runFonts[run], paint);
+            }
+            canvas.translate(-x, -y);
+        }
+    }
+
+    /**
+     * 排版一段文本，按字体拆分成若干段
+     */
+    private static Glyphs shape(String text, TextPaint paint) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S) {
+            return null;
+        }
+        PositionedGlyphs shaped = TextRunShaper.shapeTextRun(text, 0, text.length(), 0, text.length(), 0f, 0f, false, paint);
+        int count = shaped.glyphCount();
+        int[] ids = new int[count];
+        float[] offsets = new float[count * 2];
+        int runCount = 0;
+        Font lastFont = null;
+        for (int i = 0; i < count; i++) {
+            ids[i] = shaped.getGlyphId(i);
+            offsets[i * 2] = shaped.getGlyphX(i);
+            offsets[i * 2 + 1] = shaped.getGlyphY(i);
+            Font font = shaped.getFont(i);
+            if (i == 0 || font != lastFont) {
+                runCount++;
+                lastFont = font;
+            }
+        }
+        int[] runStarts = new int[runCount + 1];
+        Font[] runFonts = new Font[runCount];
+        int run = -1;
+        lastFont = null;
+        for (int i = 0; i < count; i++) {
+            Font font = shaped.getFont(i);
+            if (i == 0 || font != lastFont) {
+                run++;
+                runStarts[run] = i;
+                runFonts[run] = font;
+                lastFont = font;
+            }
+        }
+        runStarts[runCount] = count;
+        return new Glyphs(ids, offsets, runStarts, runFonts);
+    }
+
+    /**
+     * 是否包含从右向左书写的字符，这类文本交给 drawText 处理双向排版
+     */
+    private static boolean hasRtl(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            byte directionality = Character.getDirectionality(text.charAt(i));
+            if (directionality == Character.DIRECTIONALITY_RIGHT_TO_LEFT
+                    || directionality == Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
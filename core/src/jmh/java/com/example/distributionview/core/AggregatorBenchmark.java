@@ -0,0 +1,65 @@
+package com.example.distributionview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 样本写入（每个样本）与快照换算（每次），快照耗时应与样本数无关
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AggregatorBenchmark {
+    //每次写入的行数
+    private static final int ROW_COUNT = 1024;
+
+    @Param({"5", "36"})
+    int angleCount;
+
+    private ScaleAggregator aggregator;
+    private float[] rows;
+    private float[] scales;
+
+    @Setup
+    public void setup() {
+        aggregator = new ScaleAggregator(angleCount);
+        Random random = new Random(42);
+        rows = new float[ROW_COUNT * angleCount];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (float) Math.exp(random.nextGaussian() * 3);
+        }
+        for (int i = 0; i < 1000; i++) {
+            aggregator.addRows(rows, 0, ROW_COUNT);
+        }
+        scales = new float[angleCount];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public ScaleAggregator addRows() {
+        aggregator.addRows(rows, 0, ROW_COUNT);
+        return aggregator;
+    }
+
+    @Benchmark
+    public float[] snapshotLinear() {
+        aggregator.setNormalization(ScaleAggregator.NORMALIZE_LINEAR).snapshot(scales, 0);
+        return scales;
+    }
+
+    @Benchmark
+    public float[] snapshotPercentileRank() {
+        aggregator.setNormalization(ScaleAggregator.NORMALIZE_PERCENTILE_RANK).snapshot(scales, 0);
+        return scales;
+    }
+}
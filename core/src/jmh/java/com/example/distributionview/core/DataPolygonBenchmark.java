@@ -0,0 +1,81 @@
+package com.example.distributionview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 覆盖区域计算：多组数据的顶点，以及动画每帧的比例插值
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataPolygonBenchmark {
+
+    @Param({"3", "5", "8", "36", "360"})
+    int angleCount;
+
+    @Param({"1", "8", "64"})
+    int seriesCount;
+
+    private ChartGeometry chart;
+    //各组数据首尾相接
+    private float[] scales;
+    private float[] targets;
+    private float[] frame;
+    private float[] points;
+
+    @Setup
+    public void setup() {
+        chart = ChartGeometry.compute(angleCount, 5, 0f, 0f, 1080f, 1080f, 36f, 20f, 120f);
+        Random random = new Random(42);
+        scales = new float[angleCount * seriesCount];
+        targets = new float[scales.length];
+        for (int i = 0; i < scales.length; i++) {
+            scales[i] = random.nextFloat();
+            targets[i] = random.nextFloat();
+        }
+        frame = new float[scales.length];
+        points = new float[scales.length * 2];
+    }
+
+    /**
+     * 所有数据组的覆盖区域顶点
+     */
+    @Benchmark
+    public float[] dataPolygons() {
+        for (int s = 0; s < seriesCount; s++) {
+            chart.dataPoints(scales, s * angleCount, points, s * angleCount * 2);
+        }
+        return points;
+    }
+
+    /**
+     * 动画的一帧：所有数据组插值后重新计算顶点
+     */
+    @Benchmark
+    public float[] interpolateFrame() {
+        ScaleMath.lerp(scales, targets, 0.5f, frame, frame.length);
+        for (int s = 0; s < seriesCount; s++) {
+            chart.dataPoints(frame, s * angleCount, points, s * angleCount * 2);
+        }
+        return points;
+    }
+
+    /**
+     * 只做比例插值
+     */
+    @Benchmark
+    public float[] lerp() {
+        ScaleMath.lerp(scales, targets, 0.5f, frame, frame.length);
+        return frame;
+    }
+}
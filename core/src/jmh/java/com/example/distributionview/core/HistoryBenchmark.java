@@ -0,0 +1,60 @@
+package com.example.distributionview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10万条历史记录中按时间插值查找，模拟拖动进度条
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistoryBenchmark {
+    private static final int RECORD_COUNT = 100_000;
+    //每次调用查找的时间点个数
+    private static final int SEEK_COUNT = 1024;
+
+    @Param({"5", "36"})
+    int angleCount;
+
+    private ScaleHistory history;
+    private long[] seeks;
+    private float[] out;
+
+    @Setup
+    public void setup() {
+        history = new ScaleHistory(RECORD_COUNT, angleCount);
+        Random random = new Random(42);
+        float[] scales = new float[angleCount];
+        for (int i = 0; i < RECORD_COUNT + RECORD_COUNT / 2; i++) {
+            for (int k = 0; k < angleCount; k++) {
+                scales[k] = random.nextFloat();
+            }
+            history.record(i * 1000L, scales, 0);
+        }
+        seeks = new long[SEEK_COUNT];
+        for (int i = 0; i < SEEK_COUNT; i++) {
+            seeks[i] = history.getStartTime() + (long) (random.nextDouble() * (history.getEndTime() - history.getStartTime()));
+        }
+        out = new float[angleCount];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEEK_COUNT)
+    public float[] sample() {
+        for (int i = 0; i < SEEK_COUNT; i++) {
+            history.sample(seeks[i], out, 0);
+        }
+        return out;
+    }
+}
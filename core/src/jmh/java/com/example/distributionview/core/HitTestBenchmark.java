@@ -0,0 +1,79 @@
+package com.example.distributionview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 触摸点到属性下标的查找，耗时应与边数无关
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitTestBenchmark {
+    //每次调用查找的触摸点个数
+    private static final int TOUCH_COUNT = 1024;
+
+    @Param({"3", "5", "8", "36", "360"})
+    int angleCount;
+
+    private ChartGeometry chart;
+    private float[] touches;
+    private final DataPointIndex index = new DataPointIndex();
+
+    @Setup
+    public void setup() {
+        chart = ChartGeometry.compute(angleCount, 5, 0f, 0f, 1080f, 1080f, 36f, 20f, 120f);
+        Random random = new Random(42);
+        touches = new float[TOUCH_COUNT * 2];
+        for (int i = 0; i < touches.length; i++) {
+            touches[i] = random.nextFloat() * 1080f;
+        }
+        float[] scales = new float[angleCount];
+        for (int i = 0; i < angleCount; i++) {
+            scales[i] = random.nextFloat();
+        }
+        float[] points = new float[angleCount * 2];
+        chart.dataPoints(scales, 0, points, 0);
+        index.build(chart, points, 0, 24f);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOUCH_COUNT)
+    public int axisAt() {
+        int sum = 0;
+        for (int i = 0; i < TOUCH_COUNT; i++) {
+            sum += chart.axisAt(touches[i * 2], touches[i * 2 + 1]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOUCH_COUNT)
+    public int floorAt() {
+        int sum = 0;
+        for (int i = 0; i < TOUCH_COUNT; i++) {
+            sum += chart.floorAt(touches[i * 2], touches[i * 2 + 1]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOUCH_COUNT)
+    public int nearestDataPoint() {
+        int sum = 0;
+        for (int i = 0; i < TOUCH_COUNT; i++) {
+            sum += index.nearest(touches[i * 2], touches[i * 2 + 1], 24f);
+        }
+        return sum;
+    }
+}
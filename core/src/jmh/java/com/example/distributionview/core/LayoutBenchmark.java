@@ -0,0 +1,65 @@
+package com.example.distributionview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 静态图形计算：顶点生成与各层、文本锚点的完整布局
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LayoutBenchmark {
+
+    @Param({"3", "5", "8", "36", "360"})
+    int angleCount;
+
+    @Param({"1", "5", "50"})
+    int floorCount;
+
+    private PolygonGeometry geometry;
+    private float[] points;
+
+    @Setup
+    public void setup() {
+        geometry = PolygonGeometry.of(angleCount);
+        points = new float[angleCount * 2];
+    }
+
+    /**
+     * 一层多边形的顶点
+     */
+    @Benchmark
+    public float[] vertices() {
+        geometry.vertices(540f, 540f, 400f, points);
+        return points;
+    }
+
+    /**
+     * 所有层的顶点：与 ChartGeometry 构建各层背景的方式相同
+     */
+    @Benchmark
+    public void floorVertices(Blackhole blackhole) {
+        for (int i = floorCount; i >= 1; i--) {
+            geometry.vertices(540f, 540f, 400f * i / floorCount, points);
+            blackhole.consume(points);
+        }
+    }
+
+    /**
+     * 完整的布局计算：半径、中心点、各层顶点和文本锚点
+     */
+    @Benchmark
+    public ChartGeometry layout() {
+        return ChartGeometry.compute(angleCount, floorCount, 0f, 0f, 1080f, 1080f, 36f, 20f, 120f);
+    }
+}
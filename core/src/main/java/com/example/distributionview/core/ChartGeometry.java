@@ -0,0 +1,154 @@
+package com.example.distributionview.core;
+
+/**
+ * 一组尺寸参数下的图形坐标：中心点、半径、各层顶点和文本锚点
+ * 只做数值计算，不依赖 Android，路径和绘制由调用方完成
+ * 构建完成后不再修改，可以在多个线程之间共享
+ */
+public final class ChartGeometry {
+    //文本对齐判定阈值，顶点方向分量在此范围内视为居中
+    private static final float ALIGN_THRESHOLD = 0.1f;
+
+    //当前边数的顶点表
+    public final PolygonGeometry geometry;
+    public final int angleCount;
+    public final int floorCount;
+    //图形中心点与中心点到各角的距离
+    public final float centerX;
+    public final float centerY;
+    public final float radius;
+    //各层顶点（由外向内），每层依次为 x0, y0, x1, y1 ...
+    public final float[][] floorPoints;
+    //各文本锚点，纵坐标已包含基线偏移
+    public final float[] anchorX;
+    public final float[] anchorY;
+    //各文本水平对齐系数：0左对齐，0.5居中，1右对齐
+    public final float[] alignX;
+
+    private ChartGeometry(PolygonGeometry geometry, int floorCount, float left, float top, float width, float height,
+                          float radius, float textSize, float textPadding) {
+        this.geometry = geometry;
+        this.angleCount = geometry.angleCount;
+        this.floorCount = floorCount;
+        this.radius = radius;
+        //图形中心点，三角形、五边形等奇数边图形需要根据包围盒做偏移
+        centerX = left + width / 2f + geometry.centerOffsetX(radius);
+        centerY = top + height / 2f + geometry.centerOffsetY(radius);
+
+        //各层顶点由外向内排列
+        floorPoints = new float[floorCount][];
+        for (int i = floorCount; i >= 1; i--) {
+            float[] points = new float[angleCount * 2];
+            geometry.vertices(centerX, centerY, radius * i / floorCount, points);
+            floorPoints[floorCount - i] = points;
+        }
+
+        //文本锚点在各角延长线上，根据所在方位决定对齐方式
+        anchorX = new float[angleCount];
+        anchorY = new float[angleCount];
+        alignX = new float[angleCount];
+        float textRadius = radius + textPadding;
+        for (int i = 0; i < angleCount; i++) {
+            float cos = geometry.cos[i];
+            float sin = geometry.sin[i];
+            anchorX[i] = geometry.x(i, centerX, textRadius);
+            anchorY[i] = geometry.y(i, centerY, textRadius);
+            //左侧右对齐，上下居中，右侧左对齐
+            if (cos < -ALIGN_THRESHOLD) {
+                alignX[i] = 1f;
+            } else if (cos <= ALIGN_THRESHOLD) {
+                alignX[i] = 0.5f;
+            } else {
+                alignX[i] = 0f;
+            }
+            //下方文本基线下移一个字高，左右两侧垂直居中
+            if (sin > ALIGN_THRESHOLD) {
+                anchorY[i] += textSize;
+            } else if (sin >= -ALIGN_THRESHOLD) {
+                anchorY[i] += textSize / 2;
+            }
+        }
+    }
+
+    /**
+     * 在 (left, top, width, height) 区域内计算图形坐标
+     *
+     * @param textWidth 最宽的标题宽度，两侧各预留文本与间距
+     * @return 区域容纳不下图形时返回null
+     */
+    public static ChartGeometry compute(int angleCount, int floorCount, float left, float top, float width, float height,
+                                        float textSize, float textPadding, float textWidth) {
+        float size = Math.min(width, height);
+        if (size <= 0 || angleCount < PolygonGeometry.MIN_ANGLE_COUNT || floorCount < 1) {
+            return null;
+        }
+        PolygonGeometry geometry = PolygonGeometry.of(angleCount);
+        //图形可用的宽高（两侧各预留文本与间距）
+        float ww = size - 2 * (textWidth + textPadding);
+        float hh = size - 2 * (textSize + textPadding);
+        //中心点到各角的距离
+        float radius = geometry.fitRadius(ww, hh);
+        if (radius <= 0) {
+            return null;
+        }
+        return new ChartGeometry(geometry, floorCount, left, top, width, height, radius, textSize, textPadding);
+    }
+
+    /**
+     * 按比例（0~1）计算覆盖区域顶点，从scales[scaleOffset]开始取angleCount个，
+     * 依次写入 out[outOffset + 2i], out[outOffset + 2i + 1]
+     */
+    public void dataPoints(float[] scales, int scaleOffset, float[] out, int outOffset) {
+        for (int i = 0; i < angleCount; i++) {
+            float r = radius * scales[scaleOffset + i];
+            out[outOffset + i * 2] = centerX + r * geometry.cos[i];
+            out[outOffset + i * 2 + 1] = centerY + r * geometry.sin[i];
+        }
+    }
+
+    /**
+     * 坐标 (x, y) 所在方向最接近的属性下标
+     *
+     * @return 在中心点或超出最外层外接圆时返回-1
+     */
+    public int axisAt(float x, float y) {
+        float dx = x - centerX;
+        float dy = y - centerY;
+        float distance2 = dx * dx + dy * dy;
+        if (distance2 == 0 || distance2 > radius * radius) {
+            return -1;
+        }
+        return geometry.indexOfAngle(Math.atan2(dy, dx));
+    }
+
+    /**
+     * 坐标 (x, y) 所在的层，0为最内层
+     *
+     * @return 在最外层多边形之外时返回-1
+     */
+    public int floorAt(float x, float y) {
+        float scale = geometry.polygonRadius(x - centerX, y - centerY) / radius;
+        if (scale > 1) {
+            return -1;
+        }
+        return Math.min(floorCount - 1, (int) (scale * floorCount));
+    }
+
+    /**
+     * 相邻元素间距为spacing时，为了间距不小于minSpacing每隔几个绘制一个
+     * 优先取能整除边数的间隔，使抽稀后的分布均匀
+     */
+    public static int lodStep(int angleCount, float spacing, float minSpacing) {
+        if (spacing >= minSpacing) {
+            return 1;
+        }
+        int step = spacing <= 0 ? angleCount : (int) Math.ceil(minSpacing / spacing);
+        step = Math.min(step, angleCount);
+        for (int divisor = step; divisor <= Math.min(step * 2, angleCount); divisor++) {
+            if (angleCount % divisor == 0) {
+                return divisor;
+            }
+        }
+        return step;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.distributionview.core;
+
+import java.util.Arrays;
+
+/**
+ * 覆盖区域顶点的网格索引，用于按触摸点查找最近的顶点
+ * 把图形外接正方形划分为边长不小于slop的格子（每边最多 {@link #MAX_CELLS_PER_SIDE} 个），顶点按格子计数排序保存；
+ * 查找只检查触摸点 slop 范围覆盖的格子（最多3x3个），耗时与边数无关，只与这些格子内的顶点个数有关
+ * （很多顶点挤在同一处时仍需逐个比较，例如大量比例接近0的顶点都在中心点附近）
+ * 顶点变化后需要重新 {@link #build}，构建不分配内存（格子数和顶点数不变时）；非线程安全
+ */
+public final class DataPointIndex {
+    //每边最多的格子数，限制索引大小
+    private static final int MAX_CELLS_PER_SIDE = 32;
+
+    private float originX;
+    private float originY;
+    private float cellSize;
+    private int side;
+    //第c个格子的顶点为 items[cellStart[c]] ~ items[cellStart[c + 1] - 1]
+    private int[] cellStart = new int[0];
+    private int[] items = new int[0];
+    //建立索引时的顶点数组，查找时按下标读取坐标
+    private float[] points;
+    private int offset;
+    private int count;
+
+    /**
+     * 为chart的覆盖区域顶点建立索引，顶点从points[offset]开始，共chart.angleCount个
+     *
+     * @param slop 查找时使用的触摸范围，决定格子边长
+     */
+    public void build(ChartGeometry chart, float[] points, int offset, float slop) {
+        float size = 2 * chart.radius;
+        side = Math.max(1, Math.min(MAX_CELLS_PER_SIDE, (int) (size / Math.max(slop, 1e-3f))));
+        cellSize = size / side;
+        originX = chart.centerX - chart.radius;
+        originY = chart.centerY - chart.radius;
+        this.points = points;
+        this.offset = offset;
+        count = chart.angleCount;
+        int cells = side * side;
+        if (cellStart.length != cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0);
+        }
+        if (items.length != count) {
+            items = new int[count];
+        }
+        //计数后转为各格子的结束位置，再倒序放入，放完后即为开始位置
+        for (int i = 0; i < count; i++) {
+            cellStart[cellOf(i)]++;
+        }
+        int end = 0;
+        for (int c = 0; c <= cells; c++) {
+            end += cellStart[c];
+            cellStart[c] = end;
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            items[--cellStart[cellOf(i)]] = i;
+        }
+    }
+
+    /**
+     * 距离 (x, y) 不超过slop的顶点中最近的一个
+     *
+     * @return 顶点下标，没有命中或还没有建立索引时返回-1
+     */
+    public int nearest(float x, float y, float slop) {
+        if (points == null) {
+            return -1;
+        }
+        int firstColumn = clampCell((x - slop - originX) / cellSize);
+        int lastColumn = clampCell((x + slop - originX) / cellSize);
+        int firstRow = clampCell((y - slop - originY) / cellSize);
+        int lastRow = clampCell((y + slop - originY) / cellSize);
+        int hit = -1;
+        float best = slop * slop;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * side + column;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = items[k];
+                    float px = points[offset + i * 2] - x;
+                    float py = points[offset + i * 2 + 1] - y;
+                    float distance2 = px * px + py * py;
+                    if (distance2 <= best) {
+                        best = distance2;
+                        hit = i;
+                    }
+                }
+            }
+        }
+        return hit;
+    }
+
+    /**
+     * 第i个顶点所在的格子，超出外接正方形的顶点归入边上的格子
+     */
+    private int cellOf(int i) {
+        int column = clampCell((points[offset + i * 2] - originX) / cellSize);
+        int row = clampCell((points[offset + i * 2 + 1] - originY) / cellSize);
+        return row * side + column;
+    }
+
+    private int clampCell(float position) {
+        if (!(position > 0)) {
+            return 0;
+        }
+        return position >= side ? side - 1 : (int) position;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.distributionview.core;
+
+import java.util.Arrays;
+
+/**
+ * 耗时直方图（纳秒）
+ * 按2的幂分段，每段再细分8份，相对误差不超过12.5%；记录只是一次数组自增，不分配内存
+ * 非线程安全，由调用方加锁
+ */
+public final class LatencyHistogram {
+    //每个2的幂区间再细分的份数为 2^SUB_BITS
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final long[] counts;
+    private long totalCount;
+    private long max;
+    private long sum;
+
+    public LatencyHistogram() {
+        counts = new long[BUCKET_COUNT];
+    }
+
+    /**
+     * 复制一份，用于生成快照
+     */
+    public LatencyHistogram(LatencyHistogram source) {
+        counts = source.counts.clone();
+        totalCount = source.totalCount;
+        max = source.max;
+        sum = source.sum;
+    }
+
+    /**
+     * 记录一次耗时，负数按0处理
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * 百分位耗时，如 50、95、99；返回所在分段的上界，没有记录时返回0
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * totalCount);
+        rank = Math.max(1, Math.min(rank, totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket >> SUB_BITS) - 1;
+        long lower = (long) (SUB_COUNT + (bucket & (SUB_COUNT - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.distributionview.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 正多边形几何表
+ * 每种边数只计算一次单位圆顶点（cos/sin），各层边框、连接线、文本锚点和覆盖区域顶点
+ * 都由这张表缩放平移得到，绘制过程中不再调用三角函数
+ */
+public final class PolygonGeometry {
+    //支持的最少边数
+    public static final int MIN_ANGLE_COUNT = 3;
+    //按边数缓存的顶点表，所有实例共享
+    private static final ConcurrentHashMap<Integer, PolygonGeometry> CACHE = new ConcurrentHashMap<>();
+
+    //边数（属性个数）
+    public final int angleCount;
+    //单位圆上各顶点的横坐标
+    public final float[] cos;
+    //单位圆上各顶点的纵坐标（屏幕坐标系，向下为正）
+    public final float[] sin;
+    //单位多边形的包围盒
+    public final float minX;
+    public final float maxX;
+    public final float minY;
+    public final float maxY;
+    //第i条边（第i个到第i+1个顶点）的单位法线
+    private final float[] edgeCos;
+    private final float[] edgeSin;
+    //单位多边形的边心距
+    private final float apothem;
+    //第一个顶点的角度与相邻顶点的夹角（弧度）
+    private final double startAngle;
+    private final double stepAngle;
+
+    private PolygonGeometry(int angleCount) {
+        this.angleCount = angleCount;
+        cos = new float[angleCount];
+        sin = new float[angleCount];
+        edgeCos = new float[angleCount];
+        edgeSin = new float[angleCount];
+        //中心点各对角线的夹角
+        double angle = Math.PI * 2 / angleCount;
+        //奇数边第一个顶点朝正上方；偶数边整体旋转半个夹角，使顶部是一条水平边
+        double start = -Math.PI / 2 - (angleCount % 2 == 0 ? angle / 2 : 0);
+        startAngle = start;
+        stepAngle = angle;
+        float left = 0f, right = 0f, top = 0f, bottom = 0f;
+        for (int i = 0; i < angleCount; i++) {
+            double a = start + angle * i;
+            cos[i] = (float) Math.cos(a);
+            sin[i] = (float) Math.sin(a);
+            edgeCos[i] = (float) Math.cos(a + angle / 2);
+            edgeSin[i] = (float) Math.sin(a + angle / 2);
+            left = Math.min(left, cos[i]);
+            right = Math.max(right, cos[i]);
+            top = Math.min(top, sin[i]);
+            bottom = Math.max(bottom, sin[i]);
+        }
+        apothem = (float) Math.cos(angle / 2);
+        minX = left;
+        maxX = right;
+        minY = top;
+        maxY = bottom;
+    }
+
+    /**
+     * 获取指定边数的顶点表（同一边数只计算一次）
+     */
+    public static PolygonGeometry of(int angleCount) {
+        if (angleCount < MIN_ANGLE_COUNT) {
+            throw new IllegalArgumentException("angleCount must be at least " + MIN_ANGLE_COUNT + ": " + angleCount);
+        }
+        PolygonGeometry geometry = CACHE.get(angleCount);
+        if (geometry == null) {
+            geometry = new PolygonGeometry(angleCount);
+            PolygonGeometry previous = CACHE.putIfAbsent(angleCount, geometry);
+            if (previous != null) {
+                geometry = previous;
+            }
+        }
+        return geometry;
+    }
+
+    /**
+     * 能完整放入 width * height 区域的最大外接圆半径
+     */
+    public float fitRadius(float width, float height) {
+        float r = Math.min(width / (maxX - minX), height / (maxY - minY));
+        return Math.max(r, 0f);
+    }
+
+    /**
+     * 图形在区域内居中时，中心点相对区域中心的横向偏移
+     * 三角形、五边形等奇数边图形的中心点并不在包围盒中心
+     */
+    public float centerOffsetX(float radius) {
+        return -radius * (minX + maxX) / 2;
+    }
+
+    /**
+     * 图形在区域内居中时，中心点相对区域中心的纵向偏移
+     */
+    public float centerOffsetY(float radius) {
+        return -radius * (minY + maxY) / 2;
+    }
+
+    /**
+     * 第index个顶点的横坐标
+     */
+    public float x(int index, float centerX, float radius) {
+        return centerX + radius * cos[index];
+    }
+
+    /**
+     * 第index个顶点的纵坐标
+     */
+    public float y(int index, float centerY, float radius) {
+        return centerY + radius * sin[index];
+    }
+
+    /**
+     * 计算外接圆半径为radius的多边形顶点，依次写入 out[2i], out[2i + 1]
+     */
+    public void vertices(float centerX, float centerY, float radius, float[] out) {
+        for (int i = 0; i < angleCount; i++) {
+            out[i * 2] = centerX + radius * cos[i];
+            out[i * 2 + 1] = centerY + radius * sin[i];
+        }
+    }
+
+    /**
+     * 方向角（弧度，屏幕坐标系）最接近的顶点下标，直接由角度换算，与边数无关
+     */
+    public int indexOfAngle(double angle) {
+        long index = Math.round((angle - startAngle) / stepAngle);
+        int i = (int) (index % angleCount);
+        return i < 0 ? i + angleCount : i;
+    }
+
+    /**
+     * 方向角所在的边，即第i个与第i+1个顶点之间的扇区
+     */
+    public int edgeOfAngle(double angle) {
+        long index = (long) Math.floor((angle - startAngle) / stepAngle);
+        int i = (int) (index % angleCount);
+        return i < 0 ? i + angleCount : i;
+    }
+
+    /**
+     * 边界恰好经过 (dx, dy) 的多边形外接圆半径，(dx, dy) 为相对中心点的坐标
+     * 小于某层半径即在该层多边形内，只需一次扇区查找和一次点积
+     */
+    public float polygonRadius(float dx, float dy) {
+        int edge = edgeOfAngle(Math.atan2(dy, dx));
+        return (dx * edgeCos[edge] + dy * edgeSin[edge]) / apothem;
+    }
+}
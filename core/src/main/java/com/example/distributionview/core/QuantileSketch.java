@@ -0,0 +1,207 @@
+package com.example.distributionview.core;
+
+import java.util.Arrays;
+
+/**
+ * 流式统计：个数、均值、最小最大值与近似分位数，内存固定，与样本数无关
+ * 分位数按绝对值的对数分段（相邻分段比例为 (1+a)/(1-a)，a为相对误差2%），正负数各一组分段
+ * 绝对值小于 {@link #MIN_MAGNITUDE} 的样本计为0，超出 {@link #MAX_MAGNITUDE} 的计入最高一段（最小最大值仍然精确）
+ * 非线程安全，由调用方加锁
+ */
+public final class QuantileSketch {
+    //分位数的相对误差
+    public static final double RELATIVE_ACCURACY = 0.02;
+    //可区分的最小、最大绝对值
+    public static final double MIN_MAGNITUDE = 1e-6;
+    public static final double MAX_MAGNITUDE = 1e9;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_INDEX = (int) Math.ceil(Math.log(MIN_MAGNITUDE) / LOG_GAMMA);
+    private static final int BUCKET_COUNT = (int) Math.ceil(Math.log(MAX_MAGNITUDE) / LOG_GAMMA) - MIN_INDEX + 1;
+    //各分段的代表值（绝对值），所有实例共用
+    private static final double[] BUCKET_VALUES = new double[BUCKET_COUNT];
+
+    static {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            BUCKET_VALUES[i] = 2 * Math.pow(GAMMA, i + MIN_INDEX) / (GAMMA + 1);
+        }
+    }
+
+    //正数各分段计数
+    private final long[] positive = new long[BUCKET_COUNT];
+    //负数各分段计数（按绝对值），出现负数时才分配
+    private long[] negative;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * 记录一个样本，NaN和正负无穷忽略（不计入个数、均值和分位数）
+     */
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        double magnitude = Math.abs(value);
+        if (magnitude < MIN_MAGNITUDE) {
+            zeroCount++;
+        } else if (value > 0) {
+            positive[bucketOf(magnitude)]++;
+        } else {
+            if (negative == null) {
+                negative = new long[BUCKET_COUNT];
+            }
+            negative[bucketOf(magnitude)]++;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else if (value < min) {
+            min = value;
+        } else if (value > max) {
+            max = value;
+        }
+        count++;
+        sum += value;
+    }
+
+    /**
+     * 合并另一组统计
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            positive[i] += other.positive[i];
+        }
+        if (other.negative != null) {
+            if (negative == null) {
+                negative = new long[BUCKET_COUNT];
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                negative[i] += other.negative[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        if (count == 0 || other.min < min) {
+            min = other.min;
+        }
+        if (count == 0 || other.max > max) {
+            max = other.max;
+        }
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 没有样本时返回NaN
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * 没有样本时返回NaN
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * 没有样本时返回NaN
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * 近似分位数，quantile 取 0~1，如 0.5、0.99；结果限制在最小最大值之间，没有样本时返回NaN
+     */
+    public double getQuantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0, Math.min(quantile, 1)) * (count - 1));
+        return Math.max(min, Math.min(valueAtRank(rank), max));
+    }
+
+    /**
+     * 第rank个（从0开始）样本所在分段的代表值
+     */
+    private double valueAtRank(long rank) {
+        long seen = 0;
+        //负数从绝对值最大的一段开始
+        if (negative != null) {
+            for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+                seen += negative[i];
+                if (seen > rank) {
+                    return -BUCKET_VALUES[i];
+                }
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += positive[i];
+            if (seen > rank) {
+                return BUCKET_VALUES[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 不大于value的样本比例（0~1），误差为一个分段；没有样本时返回NaN
+     */
+    public double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (value >= max) {
+            return 1;
+        }
+        if (value < min) {
+            return 0;
+        }
+        long seen = 0;
+        if (negative != null) {
+            for (int i = BUCKET_COUNT - 1; i >= 0 && -BUCKET_VALUES[i] <= value; i--) {
+                seen += negative[i];
+            }
+        }
+        if (value >= 0) {
+            seen += zeroCount;
+            for (int i = 0; i < BUCKET_COUNT && BUCKET_VALUES[i] <= value; i++) {
+                seen += positive[i];
+            }
+        }
+        return (double) seen / count;
+    }
+
+    public void reset() {
+        Arrays.fill(positive, 0);
+        if (negative != null) {
+            Arrays.fill(negative, 0);
+        }
+        zeroCount = 0;
+        count = 0;
+        sum = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    static int bucketOf(double magnitude) {
+        int index = (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA) - MIN_INDEX;
+        return Math.max(0, Math.min(index, BUCKET_COUNT - 1));
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.distributionview.core;
+
+/**
+ * 原始样本到各属性比例（0~1）的流式聚合
+ * 任意线程按属性批量写入样本，每个属性只保存一份 {@link QuantileSketch}，内存与样本数无关；
+ * 需要显示时调用 {@link #snapshot(float[], int)} 把各属性的统计值按归一化方式换算成比例，耗时只与属性个数有关
+ * 每个属性单独加锁，不同属性的写入互不阻塞
+ * NaN和正负无穷的样本直接跳过，不影响个数、均值和取值范围
+ */
+public final class ScaleAggregator {
+    //各属性取值：均值
+    public static final int STAT_MEAN = 0;
+    //最小值
+    public static final int STAT_MIN = 1;
+    //最大值
+    public static final int STAT_MAX = 2;
+    //分位数，由 setQuantile 指定
+    public static final int STAT_QUANTILE = 3;
+
+    //线性：(v - min) / (max - min)
+    public static final int NORMALIZE_LINEAR = 0;
+    //对数：ln(1 + v - min) / ln(1 + max - min)，适合跨多个数量级的数据
+    public static final int NORMALIZE_LOG = 1;
+    //百分位：所有属性的全部样本中不大于v的比例，不使用取值范围
+    public static final int NORMALIZE_PERCENTILE_RANK = 2;
+
+    private final int axisCount;
+    //各属性的统计，以自身为锁
+    private final QuantileSketch[] sketches;
+    //百分位归一化时合并所有属性，只在 snapshot 中使用
+    private final QuantileSketch merged = new QuantileSketch();
+    //各属性取值，只在 snapshot 中使用
+    private final double[] values;
+
+    private int statistic = STAT_MEAN;
+    private double quantile = 0.5;
+    private int normalization = NORMALIZE_LINEAR;
+    //取值范围，NaN表示取所有属性样本的最小、最大值
+    private double rangeMin = Double.NaN;
+    private double rangeMax = Double.NaN;
+
+    public ScaleAggregator(int axisCount) {
+        if (axisCount < 1) {
+            throw new IllegalArgumentException("axisCount=" + axisCount);
+        }
+        this.axisCount = axisCount;
+        sketches = new QuantileSketch[axisCount];
+        for (int i = 0; i < axisCount; i++) {
+            sketches[i] = new QuantileSketch();
+        }
+        values = new double[axisCount];
+    }
+
+    public int getAxisCount() {
+        return axisCount;
+    }
+
+    /**
+     * 设置各属性的取值方式，如 {@link #STAT_MEAN}
+     */
+    public synchronized ScaleAggregator setStatistic(int statistic) {
+        if (statistic < STAT_MEAN || statistic > STAT_QUANTILE) {
+            throw new IllegalArgumentException("statistic=" + statistic);
+        }
+        this.statistic = statistic;
+        return this;
+    }
+
+    /**
+     * 设置 {@link #STAT_QUANTILE} 使用的分位数（0~1）
+     */
+    public synchronized ScaleAggregator setQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("quantile=" + quantile);
+        }
+        this.quantile = quantile;
+        return this;
+    }
+
+    /**
+     * 设置归一化方式，如 {@link #NORMALIZE_LINEAR}
+     */
+    public synchronized ScaleAggregator setNormalization(int normalization) {
+        if (normalization < NORMALIZE_LINEAR || normalization > NORMALIZE_PERCENTILE_RANK) {
+            throw new IllegalArgumentException("normalization=" + normalization);
+        }
+        this.normalization = normalization;
+        return this;
+    }
+
+    /**
+     * 设置线性、对数归一化的取值范围，传NaN时取所有属性样本的最小、最大值
+     */
+    public synchronized ScaleAggregator setRange(double min, double max) {
+        boolean auto = Double.isNaN(min) && Double.isNaN(max);
+        if (!auto && !(min < max)) {
+            throw new IllegalArgumentException("min=" + min + ", max=" + max);
+        }
+        rangeMin = min;
+        rangeMax = max;
+        return this;
+    }
+
+    /**
+     * 写入第axis个属性的一个样本，可在任意线程调用；NaN和正负无穷跳过
+     */
+    public void add(int axis, double value) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            sketch.add(value);
+        }
+    }
+
+    /**
+     * 写入第axis个属性的一批样本，从values[offset]开始取count个，整批只加一次锁
+     */
+    public void add(int axis, float[] values, int offset, int count) {
+        checkRange(values.length, offset, count);
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                sketch.add(values[i]);
+            }
+        }
+    }
+
+    public void add(int axis, double[] values, int offset, int count) {
+        checkRange(values.length, offset, count);
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            for (int i = offset, end = offset + count; i < end; i++) {
+                sketch.add(values[i]);
+            }
+        }
+    }
+
+    /**
+     * 按行写入样本：每行依次为各属性的一个样本，从rows[offset]开始取rowCount行
+     * 按属性逐列写入，每个属性整批只加一次锁
+     */
+    public void addRows(float[] rows, int offset, int rowCount) {
+        checkRange(rows.length, offset, rowCount * axisCount);
+        for (int axis = 0; axis < axisCount; axis++) {
+            QuantileSketch sketch = sketches[axis];
+            synchronized (sketch) {
+                for (int i = offset + axis, end = offset + rowCount * axisCount; i < end; i += axisCount) {
+                    sketch.add(rows[i]);
+                }
+            }
+        }
+    }
+
+    public long getCount(int axis) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            return sketch.getCount();
+        }
+    }
+
+    public double getMean(int axis) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            return sketch.getMean();
+        }
+    }
+
+    public double getMin(int axis) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            return sketch.getMin();
+        }
+    }
+
+    public double getMax(int axis) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            return sketch.getMax();
+        }
+    }
+
+    public double getQuantile(int axis, double quantile) {
+        QuantileSketch sketch = sketches[axis];
+        synchronized (sketch) {
+            return sketch.getQuantile(quantile);
+        }
+    }
+
+    /**
+     * 把各属性当前的统计值换算成比例，写入 out[offset] ~ out[offset + axisCount - 1]，没有样本的属性为0
+     * 可在任意线程调用，不分配内存；结果可直接交给 DistributionView.setScales 或 postScales
+     *
+     * @return 属性个数
+     */
+    public synchronized int snapshot(float[] out, int offset) {
+        checkRange(out.length, offset, axisCount);
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        if (normalization == NORMALIZE_PERCENTILE_RANK) {
+            merged.reset();
+        }
+        for (int i = 0; i < axisCount; i++) {
+            QuantileSketch sketch = sketches[i];
+            synchronized (sketch) {
+                values[i] = valueOf(sketch);
+                if (sketch.getCount() > 0) {
+                    low = Math.min(low, sketch.getMin());
+                    high = Math.max(high, sketch.getMax());
+                }
+                if (normalization == NORMALIZE_PERCENTILE_RANK) {
+                    merged.merge(sketch);
+                }
+            }
+        }
+        if (!Double.isNaN(rangeMin)) {
+            low = rangeMin;
+            high = rangeMax;
+        }
+        for (int i = 0; i < axisCount; i++) {
+            out[offset + i] = normalize(values[i], low, high);
+        }
+        return axisCount;
+    }
+
+    /**
+     * 清空所有属性的样本，取值与归一化设置保持不变
+     */
+    public void reset() {
+        for (QuantileSketch sketch : sketches) {
+            synchronized (sketch) {
+                sketch.reset();
+            }
+        }
+    }
+
+    private double valueOf(QuantileSketch sketch) {
+        switch (statistic) {
+            case STAT_MIN:
+                return sketch.getMin();
+            case STAT_MAX:
+                return sketch.getMax();
+            case STAT_QUANTILE:
+                return sketch.getQuantile(quantile);
+            default:
+                return sketch.getMean();
+        }
+    }
+
+    private float normalize(double value, double low, double high) {
+        if (Double.isNaN(value)) {
+            return 0f;
+        }
+        double scale;
+        if (normalization == NORMALIZE_PERCENTILE_RANK) {
+            scale = merged.getRank(value);
+        } else if (!(high > low)) {
+            //所有样本相同，没有可比较的范围
+            scale = 1;
+        } else if (normalization == NORMALIZE_LOG) {
+            scale = Math.log1p(Math.max(0, value - low)) / Math.log1p(high - low);
+        } else {
+            scale = (value - low) / (high - low);
+        }
+        return ScaleMath.clamp((float) scale);
+    }
+
+    private static void checkRange(int length, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", count=" + count + ", length=" + length);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.distributionview.core;
+
+/**
+ * 比例数据的历史记录，用于按时间回放
+ * 固定容量的环形缓冲区：所有比例保存在一个 capacity * angleCount 的数组中，时间保存在一个 long 数组中，
+ * 记录满后覆盖最早的一条；记录和按时间查找都不分配内存，查找为二分，耗时与记录条数的对数成正比
+ * 时间单位由调用方决定（回放时按毫秒处理），必须单调不减；所有方法可在任意线程调用
+ */
+public final class ScaleHistory {
+    private final int capacity;
+    private final int angleCount;
+    //各条记录的比例，第k个槽位占 values[k * angleCount] ~ values[(k + 1) * angleCount - 1]
+    private final float[] values;
+    private final long[] times;
+    //最早一条记录所在的槽位
+    private int head;
+    private int size;
+
+    public ScaleHistory(int capacity, int angleCount) {
+        if (capacity < 1 || angleCount < 1) {
+            throw new IllegalArgumentException("capacity=" + capacity + ", angleCount=" + angleCount);
+        }
+        this.capacity = capacity;
+        this.angleCount = angleCount;
+        values = new float[capacity * angleCount];
+        times = new long[capacity];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAngleCount() {
+        return angleCount;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 最早一条记录的时间，没有记录时抛出异常
+     */
+    public synchronized long getStartTime() {
+        checkNotEmpty();
+        return times[head];
+    }
+
+    /**
+     * 最近一条记录的时间，没有记录时抛出异常
+     */
+    public synchronized long getEndTime() {
+        checkNotEmpty();
+        return times[slot(size - 1)];
+    }
+
+    /**
+     * 记录time时刻的比例，从scales[offset]开始取angleCount个
+     *
+     * @throws IllegalArgumentException time早于最近一条记录
+     */
+    public synchronized void record(long time, float[] scales, int offset) {
+        if (offset < 0 || offset + angleCount > scales.length) {
+            throw new ArrayIndexOutOfBoundsException("offset=" + offset + ", count=" + angleCount + ", length=" + scales.length);
+        }
+        if (size > 0 && time < times[slot(size - 1)]) {
+            throw new IllegalArgumentException("time=" + time + " is before " + times[slot(size - 1)]);
+        }
+        int target;
+        if (size < capacity) {
+            target = slot(size);
+            size++;
+        } else {
+            target = head;
+            head = slot(1);
+        }
+        times[target] = time;
+        System.arraycopy(scales, offset, values, target * angleCount, angleCount);
+    }
+
+    /**
+     * 时间不晚于time的最后一条记录的序号（0为最早一条），time早于所有记录时返回-1
+     */
+    public synchronized int indexAt(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[slot(mid)] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * 第index条记录（0为最早一条）的时间
+     */
+    public synchronized long getTime(int index) {
+        checkIndex(index);
+        return times[slot(index)];
+    }
+
+    /**
+     * 复制第index条记录的比例到 out[offset] 开始的angleCount个位置
+     */
+    public synchronized void get(int index, float[] out, int offset) {
+        checkIndex(index);
+        System.arraycopy(values, slot(index) * angleCount, out, offset, angleCount);
+    }
+
+    /**
+     * 计算time时刻的比例，写入 out[offset] 开始的angleCount个位置
+     * 落在两条记录之间时按时间线性插值，早于最早一条或晚于最近一条时取两端的记录
+     *
+     * @return 没有记录时返回false，out不变
+     */
+    public synchronized boolean sample(long time, float[] out, int offset) {
+        if (size == 0) {
+            return false;
+        }
+        int index = indexAt(time);
+        if (index < 0) {
+            index = 0;
+        }
+        int from = slot(index) * angleCount;
+        if (index == size - 1 || times[slot(index)] >= time) {
+            System.arraycopy(values, from, out, offset, angleCount);
+            return true;
+        }
+        int to = slot(index + 1) * angleCount;
+        long fromTime = times[slot(index)];
+        float fraction = (float) ((double) (time - fromTime) / (times[slot(index + 1)] - fromTime));
+        for (int i = 0; i < angleCount; i++) {
+            out[offset + i] = values[from + i] + (values[to + i] - values[from + i]) * fraction;
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * 第index条记录所在的槽位
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("history is empty");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.distributionview.core;
+
+/**
+ * 比例数据的基础运算
+ */
+public final class ScaleMath {
+
+    private ScaleMath() {
+    }
+
+    /**
+     * 限制在 0~1 之间，NaN按0处理
+     */
+    public static float clamp(float scale) {
+        if (scale > 1) {
+            return 1f;
+        }
+        return scale > 0 ? scale : 0f;
+    }
+
+    /**
+     * out[i] = from[i] + (to[i] - from[i]) * fraction
+     */
+    public static void lerp(float[] from, float[] to, float fraction, float[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = from[i] + (to[i] - from[i]) * fraction;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.distributionview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 图形坐标计算，在普通 JVM 上运行
+ */
+public class ChartGeometryTest {
+
+    @Test
+    public void fullScalesMatchOuterFloor() {
+        ChartGeometry chart = ChartGeometry.compute(6, 3, 0f, 0f, 400f, 400f, 20f, 20f, 40f);
+        float[] scales = {1f, 1f, 1f, 1f, 1f, 1f};
+        float[] points = new float[12];
+        chart.dataPoints(scales, 0, points, 0);
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(chart.floorPoints[0][i], points[i], 0.001f);
+        }
+    }
+
+    @Test
+    public void axisAtFindsEachVertexDirection() {
+        for (int angleCount = 3; angleCount <= 360; angleCount++) {
+            ChartGeometry chart = ChartGeometry.compute(angleCount, 1, 0f, 0f, 1000f, 1000f, 20f, 20f, 40f);
+            PolygonGeometry geometry = chart.geometry;
+            for (int i = 0; i < angleCount; i++) {
+                float x = geometry.x(i, chart.centerX, chart.radius / 2);
+                float y = geometry.y(i, chart.centerY, chart.radius / 2);
+                assertEquals(i, chart.axisAt(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void axisAtOutsideChart() {
+        ChartGeometry chart = ChartGeometry.compute(5, 1, 0f, 0f, 400f, 400f, 20f, 20f, 40f);
+        assertEquals(-1, chart.axisAt(chart.centerX, chart.centerY));
+        assertEquals(-1, chart.axisAt(chart.centerX + chart.radius + 1, chart.centerY));
+    }
+
+    @Test
+    public void tooSmallToFit() {
+        assertNull(ChartGeometry.compute(5, 3, 0f, 0f, 100f, 100f, 20f, 20f, 40f));
+    }
+
+    @Test
+    public void floorAtAlongAxesAndEdges() {
+        ChartGeometry chart = ChartGeometry.compute(5, 4, 0f, 0f, 400f, 400f, 20f, 20f, 40f);
+        PolygonGeometry geometry = chart.geometry;
+        for (int floor = 0; floor < 4; floor++) {
+            float r = chart.radius * (floor + 0.5f) / 4;
+            for (int i = 0; i < 5; i++) {
+                //顶点方向与相邻两顶点连线的中点
+                int next = (i + 1) % 5;
+                float vx = geometry.x(i, chart.centerX, r);
+                float vy = geometry.y(i, chart.centerY, r);
+                float mx = (vx + geometry.x(next, chart.centerX, r)) / 2;
+                float my = (vy + geometry.y(next, chart.centerY, r)) / 2;
+                assertEquals(floor, chart.floorAt(vx, vy));
+                assertEquals(floor, chart.floorAt(mx, my));
+            }
+        }
+        assertEquals(-1, chart.floorAt(chart.centerX, chart.centerY - chart.radius - 1));
+    }
+
+    @Test
+    public void lodStepPrefersDivisors() {
+        assertEquals(1, ChartGeometry.lodStep(360, 12f, 12f));
+        //需要间隔7个，360的约数中最近的是8
+        assertEquals(8, ChartGeometry.lodStep(360, 2f, 13f));
+        assertEquals(7, ChartGeometry.lodStep(7, 0f, 12f));
+    }
+}
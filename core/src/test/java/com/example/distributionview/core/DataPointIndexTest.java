@@ -0,0 +1,89 @@
+package com.example.distributionview.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 覆盖区域顶点的网格索引
+ */
+public class DataPointIndexTest {
+
+    @Test
+    public void nearestVertex() {
+        ChartGeometry chart = ChartGeometry.compute(8, 3, 0f, 0f, 400f, 400f, 20f, 20f, 40f);
+        float[] scales = {0.1f, 1f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f};
+        float[] points = new float[16];
+        chart.dataPoints(scales, 0, points, 0);
+        DataPointIndex index = new DataPointIndex();
+        assertEquals(-1, index.nearest(points[0], points[1], 10f));
+        index.build(chart, points, 0, 10f);
+        assertEquals(1, index.nearest(points[2] + 3, points[3] - 3, 10f));
+        assertEquals(0, index.nearest(points[0], points[1], 10f));
+        assertEquals(-1, index.nearest(points[4] + 30, points[5], 10f));
+        //图形之外的触摸点
+        assertEquals(-1, index.nearest(-100f, -100f, 10f));
+    }
+
+    @Test
+    public void nearCenter() {
+        //中心附近一个扇区比slop还窄，命中的顶点不在触摸方向上
+        for (int angleCount : new int[]{8, 360}) {
+            ChartGeometry chart = ChartGeometry.compute(angleCount, 3, 0f, 0f, 400f, 400f, 20f, 20f, 40f);
+            float[] scales = new float[angleCount];
+            Arrays.fill(scales, 0.5f);
+            scales[0] = 0.02f;
+            float[] points = new float[angleCount * 2];
+            chart.dataPoints(scales, 0, points, 0);
+            DataPointIndex index = new DataPointIndex();
+            index.build(chart, points, 0, 24f);
+            float touchX = chart.centerX + 8;
+            float touchY = chart.centerY;
+            float dx = points[0] - touchX;
+            float dy = points[1] - touchY;
+            assertTrue(Math.sqrt(dx * dx + dy * dy) < 24);
+            assertEquals(0, index.nearest(touchX, touchY, 24f));
+            assertEquals(0, index.nearest(chart.centerX - 15, chart.centerY - 20, 24f));
+        }
+    }
+
+    @Test
+    public void matchesLinearScan() {
+        Random random = new Random(7);
+        ChartGeometry chart = ChartGeometry.compute(360, 5, 0f, 0f, 1080f, 1080f, 36f, 20f, 120f);
+        float[] scales = new float[360];
+        for (int i = 0; i < scales.length; i++) {
+            scales[i] = random.nextFloat();
+        }
+        float[] points = new float[720];
+        chart.dataPoints(scales, 0, points, 0);
+        DataPointIndex index = new DataPointIndex();
+        index.build(chart, points, 0, 24f);
+        for (int t = 0; t < 2000; t++) {
+            float x = random.nextFloat() * 1080f;
+            float y = random.nextFloat() * 1080f;
+            int expected = -1;
+            float best = 24f * 24f;
+            for (int i = 0; i < 360; i++) {
+                float px = points[i * 2] - x;
+                float py = points[i * 2 + 1] - y;
+                if (px * px + py * py <= best) {
+                    best = px * px + py * py;
+                    expected = i;
+                }
+            }
+            int actual = index.nearest(x, y, 24f);
+            if (expected < 0 || actual < 0) {
+                assertEquals(expected, actual);
+            } else {
+                float px = points[actual * 2] - x;
+                float py = points[actual * 2 + 1] - y;
+                assertEquals(best, px * px + py * py, 1e-3f);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.distributionview.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScaleAggregatorTest {
+
+    @Test
+    public void quantilesWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        Random random = new Random(42);
+        double[] samples = new double[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Math.exp(random.nextGaussian() * 3);
+            sketch.add(samples[i]);
+        }
+        Arrays.sort(samples);
+        for (double q : new double[]{0.01, 0.5, 0.9, 0.99}) {
+            double expected = samples[(int) (q * (samples.length - 1))];
+            double actual = sketch.getQuantile(q);
+            assertTrue(q + ": " + actual + " vs " + expected,
+                    Math.abs(actual - expected) <= expected * QuantileSketch.RELATIVE_ACCURACY * 1.01);
+        }
+        assertEquals(samples[0], sketch.getMin(), 0);
+        assertEquals(samples[samples.length - 1], sketch.getMax(), 0);
+    }
+
+    @Test
+    public void nonFiniteSamplesAreSkipped() {
+        ScaleAggregator aggregator = new ScaleAggregator(2);
+        aggregator.add(0, 10);
+        aggregator.add(0, Double.POSITIVE_INFINITY);
+        aggregator.add(0, Double.NaN);
+        aggregator.add(0, new float[]{Float.NEGATIVE_INFINITY, 30, Float.NaN}, 0, 3);
+        aggregator.addRows(new float[]{Float.POSITIVE_INFINITY, 0, 20, Float.NaN}, 0, 2);
+        assertEquals(3, aggregator.getCount(0));
+        assertEquals(20, aggregator.getMean(0), 1e-9);
+        assertEquals(10, aggregator.getMin(0), 0);
+        assertEquals(30, aggregator.getMax(0), 0);
+        assertEquals(1, aggregator.getCount(1));
+
+        float[] out = new float[2];
+        aggregator.snapshot(out, 0);
+        for (float scale : out) {
+            assertTrue(scale >= 0 && scale <= 1);
+        }
+    }
+
+    @Test
+    public void clampMapsNanToZero() {
+        assertEquals(0f, ScaleMath.clamp(Float.NaN), 0);
+        assertEquals(0f, ScaleMath.clamp(Float.NEGATIVE_INFINITY), 0);
+        assertEquals(1f, ScaleMath.clamp(Float.POSITIVE_INFINITY), 0);
+        assertEquals(0.25f, ScaleMath.clamp(0.25f), 0);
+    }
+
+    @Test
+    public void linearAndPercentileRankSnapshots() {
+        ScaleAggregator aggregator = new ScaleAggregator(3);
+        float[] rows = new float[300];
+        for (int i = 0; i < 100; i++) {
+            rows[i * 3] = 10;
+            rows[i * 3 + 1] = 20;
+            rows[i * 3 + 2] = 30;
+        }
+        aggregator.addRows(rows, 0, 100);
+        assertEquals(100, aggregator.getCount(2));
+        assertEquals(20, aggregator.getMean(1), 1e-9);
+
+        float[] scales = new float[3];
+        aggregator.setRange(0, 40).snapshot(scales, 0);
+        assertEquals(0.25f, scales[0], 1e-6f);
+        assertEquals(0.75f, scales[2], 1e-6f);
+
+        aggregator.setNormalization(ScaleAggregator.NORMALIZE_PERCENTILE_RANK).snapshot(scales, 0);
+        assertEquals(1 / 3f, scales[0], 1e-6f);
+        assertEquals(2 / 3f, scales[1], 1e-6f);
+        assertEquals(1f, scales[2], 1e-6f);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.distributionview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScaleHistoryTest {
+
+    @Test
+    public void wrapsAndFindsByTime() {
+        ScaleHistory history = new ScaleHistory(4, 2);
+        float[] out = new float[2];
+        assertFalse(history.sample(0, out, 0));
+        for (int i = 0; i < 6; i++) {
+            history.record(i * 100L, new float[]{i / 10f, 1 - i / 10f}, 0);
+        }
+        assertEquals(4, history.size());
+        assertEquals(200L, history.getStartTime());
+        assertEquals(500L, history.getEndTime());
+        assertEquals(-1, history.indexAt(199));
+        assertEquals(0, history.indexAt(200));
+        assertEquals(2, history.indexAt(499));
+        assertEquals(3, history.indexAt(10_000));
+    }
+
+    @Test
+    public void interpolatesBetweenRecords() {
+        ScaleHistory history = new ScaleHistory(8, 2);
+        history.record(1000, new float[]{0f, 1f}, 0);
+        history.record(2000, new float[]{1f, 0f}, 0);
+        float[] out = new float[2];
+        assertTrue(history.sample(1250, out, 0));
+        assertEquals(0.25f, out[0], 1e-6f);
+        assertEquals(0.75f, out[1], 1e-6f);
+        history.sample(0, out, 0);
+        assertEquals(0f, out[0], 0f);
+        history.sample(5000, out, 0);
+        assertEquals(1f, out[0], 0f);
+    }
+}